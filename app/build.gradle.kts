@@ -31,6 +31,10 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // JVM tests run DAO code that logs through android.util.Log
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -41,6 +45,7 @@ dependencies {
     implementation(libs.recyclerview)
     // HTTP & JSON - Core dependencies
     implementation("com.squareup.okhttp3:okhttp:4.11.0")
+    implementation("com.squareup.okhttp3:okhttp-brotli:4.11.0")
     implementation("com.google.code.gson:gson:2.10.1")
     // Retrofit for REST API (alternative to raw OkHttp)
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
@@ -49,8 +54,14 @@ dependencies {
     // Navigation
     implementation(libs.navigation.fragment)
     implementation(libs.navigation.ui)
+    // ViewModel & LiveData
+    implementation(libs.lifecycle.viewmodel)
+    implementation(libs.lifecycle.livedata)
     // Testing
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
     androidTestImplementation(libs.ext.junit)
+    androidTestImplementation("com.squareup.okhttp3:mockwebserver:4.11.0")
+    androidTestImplementation("com.squareup.okhttp3:okhttp-tls:4.11.0")
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
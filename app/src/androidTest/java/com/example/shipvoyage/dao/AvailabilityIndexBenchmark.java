@@ -0,0 +1,90 @@
+package com.example.shipvoyage.dao;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * "Free rooms of type X" on a 2,000-room ship: rebuilding a set of booked ids and
+ * scanning every room (the old RoomSelectionDialog path) against AvailabilityIndex.
+ * Results are logged under the AvailabilityIndexBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AvailabilityIndexBenchmark {
+    private static final String TAG = "AvailabilityIndexBenchmark";
+    private static final String INSTANCE = "bench";
+    private static final int ROOMS = 2000;
+    private static final int QUERIES = 2000;
+    private static final String[] TYPES = {"Deluxe", "Suite", "Economy", "Family"};
+
+    @After
+    public void tearDown() {
+        AvailabilityIndex.invalidate(INSTANCE);
+    }
+
+    @Test
+    public void freeRoomQueryByPath() {
+        List<Room> rooms = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(new Room("r" + i, "s1", String.valueOf(100 + i), TYPES[i % TYPES.length], true));
+            if (i % 3 != 0) {
+                Booking booking = new Booking();
+                booking.setId("b" + i);
+                booking.setRoomId("r" + i);
+                booking.setStatus("confirmed");
+                bookings.add(booking);
+            }
+        }
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms, bookings);
+
+        // Warm up
+        long expected = scanFree(rooms, bookings, "Suite") + index.freeCount("Suite");
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++) {
+            sink += scanFree(rooms, bookings, TYPES[q % TYPES.length]);
+        }
+        long scanNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++) {
+            sink -= index.freeCount(TYPES[q % TYPES.length]);
+        }
+        long indexNanos = System.nanoTime() - start;
+
+        assertEquals("Both paths must agree", 0, sink);
+        assertEquals(2 * scanFree(rooms, bookings, "Suite"), expected);
+        Log.i(TAG, "linear scan:        " + scanNanos / QUERIES + " ns/query");
+        Log.i(TAG, "AvailabilityIndex:  " + indexNanos / QUERIES + " ns/query");
+    }
+
+    private static int scanFree(List<Room> rooms, List<Booking> bookings, String type) {
+        Set<String> booked = new HashSet<>();
+        for (Booking booking : bookings) {
+            booked.add(booking.getRoomId());
+        }
+        int free = 0;
+        for (Room room : rooms) {
+            if (type.equalsIgnoreCase(room.getType()) && !booked.contains(room.getId())) {
+                free++;
+            }
+        }
+        return free;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.shipvoyage.dao;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.shipvoyage.model.Booking;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Peak heap and latency of decoding a 50k-row bookings response: the old path
+ * (whole body as a String, parsed into a JsonArray, then each element mapped again)
+ * against the streaming JsonReader path used by the DAOs.
+ * Results are logged under the StreamingDecodeBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StreamingDecodeBenchmark {
+    private static final String TAG = "StreamingDecodeBenchmark";
+    private static final int ROWS = 50_000;
+
+    private MockWebServer server;
+    private Buffer fixture;
+
+    @Before
+    public void setUp() throws Exception {
+        fixture = bookingsFixture(ROWS);
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void heapAndTimeByDecodePath() throws Exception {
+        BenchmarkDAO dao = new BenchmarkDAO();
+        OkHttpClient client = dao.httpClient;
+        Gson gson = dao.gson;
+
+        // Warm up both paths before measuring
+        decodeAsString(client, gson);
+        decodeStreaming(dao);
+
+        Result string = measure(() -> assertEquals(ROWS, decodeAsString(client, gson)));
+        Result streaming = measure(() -> assertEquals(ROWS, decodeStreaming(dao)));
+
+        Log.i(TAG, "string decode:    " + string);
+        Log.i(TAG, "streaming decode: " + streaming);
+    }
+
+    private int decodeAsString(OkHttpClient client, Gson gson) throws Exception {
+        server.enqueue(new MockResponse().setBody(fixture.clone()));
+        Request request = new Request.Builder().url(server.url("/rest/v1/bookings")).build();
+        try (Response response = client.newCall(request).execute()) {
+            JsonArray array = JsonParser.parseString(response.body().string()).getAsJsonArray();
+            List<Booking> rows = new ArrayList<>();
+            for (JsonElement element : array) {
+                rows.add(gson.fromJson(element, Booking.class));
+            }
+            return rows.size();
+        }
+    }
+
+    private int decodeStreaming(BenchmarkDAO dao) {
+        server.enqueue(new MockResponse().setBody(fixture.clone()));
+        List<Booking> rows = new ArrayList<>();
+        dao.fetchRows(server.url("/rest/v1/bookings").toString(), Booking.class, rows::add);
+        return rows.size();
+    }
+
+    private static Buffer bookingsFixture(int rows) {
+        Buffer buffer = new Buffer().writeUtf8("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) buffer.writeUtf8(",");
+            buffer.writeUtf8("{\"id\":\"b" + i + "\",\"tour_instance_id\":\"ti" + (i % 40)
+                    + "\",\"room_id\":\"r" + (i % 300) + "\",\"name\":\"Passenger " + i
+                    + "\",\"phone\":\"01700" + (100000 + i) + "\",\"email\":\"p" + i + "@example.com"
+                    + "\",\"payment_method\":\"bkash\",\"payment_details\":\"TX" + i
+                    + "\",\"total_payment\":12500.0,\"paid_amount\":5000.0,\"due_amount\":7500.0"
+                    + ",\"discount\":0.0,\"adult_count\":2,\"child_count\":1,\"status\":\"confirmed\"}");
+        }
+        return buffer.writeUtf8("]");
+    }
+
+    /**
+     * Bookings DAO for calling the DAO decode path directly
+     */
+    private static final class BenchmarkDAO extends BaseSupabaseDAO {
+        BenchmarkDAO() {
+            super(null, "bookings");
+        }
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private static final class Result {
+        final long peakBytes;
+        final long millis;
+
+        Result(long peakBytes, long millis) {
+            this.peakBytes = peakBytes;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.1f MB peak heap above baseline, %d ms",
+                    peakBytes / (1024.0 * 1024), millis);
+        }
+    }
+
+    /**
+     * Run body while sampling used heap every millisecond
+     */
+    private static Result measure(Body body) throws Exception {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread sampler = new Thread(() -> {
+            while (!done.get()) {
+                peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } finally {
+            done.set(true);
+            sampler.join();
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Result(peak.get() - baseline, millis);
+    }
+}
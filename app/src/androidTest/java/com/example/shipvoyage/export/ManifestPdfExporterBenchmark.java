@@ -0,0 +1,66 @@
+package com.example.shipvoyage.export;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.shipvoyage.model.User;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pages per second for a large manifest with 1, 2, 4 and 8 layout workers.
+ * Results are logged under the ManifestPdfBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ManifestPdfExporterBenchmark {
+    private static final String TAG = "ManifestPdfBenchmark";
+    private static final int PASSENGERS = 4000;
+    private static final int[] WORKERS = {1, 2, 4, 8};
+
+    /**
+     * Discards the PDF so only rendering is measured
+     */
+    private static final OutputStream SINK = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Test
+    public void pagesPerSecondByWorkerCount() throws Exception {
+        List<User> customers = ManifestPdfExporterTest.passengers(PASSENGERS);
+        int pages = ManifestPdfExporter.pageCount(PASSENGERS);
+
+        // Warm up the layout and drawing code once
+        new ManifestPdfExporter("MV Sundarban", "Dhaka - Barishal", customers).setWorkers(2).writeTo(SINK, null);
+
+        for (int workers : WORKERS) {
+            int[] emitted = {0};
+            long start = System.nanoTime();
+            new ManifestPdfExporter("MV Sundarban", "Dhaka - Barishal", customers)
+                    .setWorkers(workers)
+                    .writeTo(SINK, (done, total) -> {
+                        // Pages must be emitted strictly in order
+                        assertEquals(emitted[0] + 1, done);
+                        emitted[0] = done;
+                    });
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertEquals(pages, emitted[0]);
+            Log.i(TAG, String.format(Locale.ROOT, "%d worker(s): %d pages in %.2f s, %.1f pages/s",
+                    workers, pages, seconds, pages / seconds));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.shipvoyage.export;
+
+import android.content.Context;
+import android.graphics.pdf.PdfRenderer;
+import android.os.ParcelFileDescriptor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.shipvoyage.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class ManifestPdfExporterTest {
+    private static final int PASSENGERS = 5000;
+    // Java heap the export may add on top of the passenger list
+    private static final long HEAP_CEILING_BYTES = 32L * 1024 * 1024;
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        file = new File(context.getCacheDir(), "manifest-test.pdf");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    static List<User> passengers(int count) {
+        String[] roomTypes = {"Deluxe Couple", "Family Suite", "Economy Twin", "VIP"};
+        List<User> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User("u" + i, "Passenger " + i, "p" + i + "@example.com", "0171" + (1000000 + i), "passenger");
+            user.setRoomNumber(String.valueOf(100 + i % 400));
+            user.setRoomType(roomTypes[i % roomTypes.length]);
+            user.setAdultCount(1 + i % 3);
+            user.setChildCount(i % 2);
+            user.setAdvanceAmount(500 * (i % 10));
+            customers.add(user);
+        }
+        return customers;
+    }
+
+    @Test
+    public void fiveThousandPassengers_renderEveryPageWithinHeapCeiling() throws Exception {
+        List<User> customers = passengers(PASSENGERS);
+        int expectedPages = ManifestPdfExporter.pageCount(PASSENGERS);
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicInteger lastProgress = new AtomicInteger();
+
+        new ManifestPdfExporter("MV Sundarban", "Dhaka - Barishal", customers)
+                .exportTo(file, (done, total) -> {
+                    assertEquals(expectedPages, total);
+                    lastProgress.set(done);
+                    peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                })
+                .get(5, TimeUnit.MINUTES);
+
+        assertEquals(expectedPages, lastProgress.get());
+        try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+             PdfRenderer renderer = new PdfRenderer(fd)) {
+            // Every passenger gets a cell; none are dropped after the first page
+            assertEquals(expectedPages, renderer.getPageCount());
+        }
+        long growth = peak.get() - baseline;
+        assertTrue("Export grew the heap by " + growth / 1024 + " KB", growth < HEAP_CEILING_BYTES);
+    }
+
+    @Test
+    public void cancelledExport_deletesPartialFile() throws Exception {
+        ManifestPdfExporter exporter = new ManifestPdfExporter(null, "Dhaka - Barishal", passengers(PASSENGERS));
+        try {
+            exporter.exportTo(file, (done, total) -> exporter.cancel()).get(5, TimeUnit.MINUTES);
+            fail("Expected the export to be cancelled");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof CancellationException);
+        }
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void emptyManifest_stillHasOnePage() throws Exception {
+        new ManifestPdfExporter("MV Sundarban", "Dhaka - Barishal", new ArrayList<>())
+                .exportTo(file, null)
+                .get(1, TimeUnit.MINUTES);
+
+        try (ParcelFileDescriptor fd = ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+             PdfRenderer renderer = new PdfRenderer(fd)) {
+            assertEquals(1, renderer.getPageCount());
+        }
+    }
+}
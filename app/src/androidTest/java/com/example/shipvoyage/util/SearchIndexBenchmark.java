@@ -0,0 +1,87 @@
+package com.example.shipvoyage.util;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.shipvoyage.model.User;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Customer search over 50k rows: the linear scan CustomerListFragment used to run
+ * on every keystroke (lower-casing each field of each row) against SearchIndex.
+ * Results are logged under the SearchIndexBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchIndexBenchmark {
+    private static final String TAG = "SearchIndexBenchmark";
+    private static final int CUSTOMERS = 50_000;
+    private static final String[] QUERIES = {"rahim", "karim 12", "0171234", "4999@", "begum", "xyz"};
+    private static final String[] FIRST = {"Rahim", "Karim", "Fatema", "Nusrat", "Tanvir", "Sadia", "Arif", "Mitu"};
+    private static final String[] LAST = {"Uddin", "Ahmed", "Begum", "Hossain", "Islam", "Khan", "Chowdhury"};
+
+    @Test
+    public void searchTimeByPath() {
+        List<User> customers = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String name = FIRST[i % FIRST.length] + " " + LAST[i % LAST.length] + " " + i;
+            customers.add(new User("u" + i, name, "user" + i + "@example.com",
+                    "017" + (10000000 + i * 7 % 90000000), "passenger"));
+        }
+
+        long start = System.nanoTime();
+        SearchIndex<User> index = new SearchIndex<>(User::getId, User::getName, User::getEmail, User::getPhone);
+        index.setAll(customers);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Warm up both paths and check they agree
+        for (String query : QUERIES) {
+            assertEquals(query, linearScan(customers, query).size(), index.search(query).size());
+        }
+
+        int rounds = 20;
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String query : QUERIES) {
+                linearScan(customers, query);
+            }
+        }
+        double scanMicros = (System.nanoTime() - start) / 1000.0 / (rounds * QUERIES.length);
+
+        start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String query : QUERIES) {
+                index.search(query);
+            }
+        }
+        double indexMicros = (System.nanoTime() - start) / 1000.0 / (rounds * QUERIES.length);
+
+        Log.i(TAG, "index build:  " + buildMillis + " ms for " + CUSTOMERS + " customers");
+        Log.i(TAG, String.format(Locale.ROOT, "linear scan:  %.1f us/query", scanMicros));
+        Log.i(TAG, String.format(Locale.ROOT, "SearchIndex:  %.1f us/query", indexMicros));
+    }
+
+    /**
+     * The search CustomerListFragment used to run
+     */
+    private static List<User> linearScan(List<User> customers, String query) {
+        String q = query.toLowerCase();
+        List<User> result = new ArrayList<>();
+        for (User user : customers) {
+            if ((user.getName() != null && user.getName().toLowerCase().contains(q))
+                    || (user.getEmail() != null && user.getEmail().toLowerCase().contains(q))
+                    || (user.getPhone() != null && user.getPhone().toLowerCase().contains(q))) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+}
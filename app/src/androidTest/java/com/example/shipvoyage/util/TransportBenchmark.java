@@ -0,0 +1,166 @@
+package com.example.shipvoyage.util;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Bursts of 50 parallel PostgREST customer searches (bookings of one tour instance
+ * matched by name, email or phone) against a local TLS server that answers
+ * after 10 ms. Compares HTTP/1.1 with a 5-connection pool (OkHttp's default) against
+ * the TransportConfig defaults (HTTP/2, 8 idle connections kept for 300 s).
+ * Calls run on 16 threads like the DAO pool; results are averaged over 10 bursts
+ * and logged under the TransportBenchmark tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransportBenchmark {
+    private static final String TAG = "TransportBenchmark";
+    private static final int CALLS = 50;
+    private static final int THREADS = 16;
+    private static final int BURSTS = 10;
+    private static final long RESPONSE_DELAY_MS = 10;
+    private static final String HOST = "localhost";
+    private static final String BODY = "[{\"id\":\"b1\",\"tour_instance_id\":\"ti1\",\"room_id\":\"r1\","
+            + "\"name\":\"Rahim Uddin\",\"phone\":\"01712345678\",\"email\":\"rahim@example.com\","
+            + "\"status\":\"confirmed\",\"rooms\":{\"name\":\"101\",\"type\":\"Deluxe\"}}]";
+
+    private MockWebServer server;
+    private HandshakeCertificates clientCertificates;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        HeldCertificate certificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName(HOST)
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(certificate)
+                .build();
+        clientCertificates = new HandshakeCertificates.Builder()
+                .addTrustedCertificate(certificate.certificate())
+                .build();
+
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(BODY)
+                        .setHeadersDelay(RESPONSE_DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start(InetAddress.getByName(HOST), 0);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void burstLatencyByTransport() throws Exception {
+        report("HTTP/1.1, default pool", new TransportConfig().setHttp2(false).setConnectionPool(5, 300));
+        report("HTTP/2, pool 8/300s   ", new TransportConfig());
+    }
+
+    private void report(String label, TransportConfig config) throws Exception {
+        OkHttpClient client = SupabaseClient.newTransportBuilder(config)
+                .sslSocketFactory(clientCertificates.sslSocketFactory(), clientCertificates.trustManager())
+                .build();
+
+        // Warm up: open connections and run the TLS handshakes once
+        burst(client, -1);
+
+        long burstNanos = 0;
+        List<Long> latencies = new ArrayList<>();
+        for (int b = 0; b < BURSTS; b++) {
+            long start = System.nanoTime();
+            latencies.addAll(burst(client, b));
+            burstNanos += System.nanoTime() - start;
+        }
+        Collections.sort(latencies);
+
+        Log.i(TAG, String.format(Locale.ROOT, "%s: burst %d ms, p50 %d ms, p95 %d ms, %d connection(s)",
+                label,
+                burstNanos / BURSTS / 1_000_000,
+                latencies.get(latencies.size() / 2) / 1_000_000,
+                latencies.get(latencies.size() * 95 / 100) / 1_000_000,
+                client.connectionPool().connectionCount()));
+
+        client.connectionPool().evictAll();
+        client.dispatcher().executorService().shutdown();
+    }
+
+    /**
+     * Run CALLS searches at once and return each call's latency in nanoseconds
+     */
+    private List<Long> burst(OkHttpClient client, int round) {
+        List<CompletableFuture<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            // A different term per call, so the DAO would not have shared any of them
+            HttpUrl url = searchUrl("ti1", "rahim" + round + "_" + i);
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                    assertEquals(200, response.code());
+                    response.body().string();
+                } catch (Exception e) {
+                    throw new AssertionError("Search failed: " + e.getMessage(), e);
+                }
+                return System.nanoTime() - start;
+            }, executor));
+        }
+        List<Long> latencies = new ArrayList<>(CALLS);
+        for (CompletableFuture<Long> call : calls) {
+            latencies.add(call.join());
+        }
+        return latencies;
+    }
+
+    /**
+     * A search of one tour instance's active bookings by name, email or phone
+     */
+    private HttpUrl searchUrl(String tourInstanceId, String term) {
+        return server.url("/rest/v1/bookings").newBuilder()
+                .addQueryParameter("select", "*,rooms(name,type)")
+                .addQueryParameter("tour_instance_id", "eq." + tourInstanceId)
+                .addQueryParameter("and", "(or(status.is.null,status.neq.CANCELLED),"
+                        + "or(name.ilike.*" + term + "*,email.ilike.*" + term + "*,phone.ilike.*" + term + "*))")
+                .build();
+    }
+}
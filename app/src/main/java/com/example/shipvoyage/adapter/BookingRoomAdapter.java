@@ -11,57 +11,42 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
+import com.example.shipvoyage.dao.AvailabilityIndex;
 import com.example.shipvoyage.model.Room;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 public class BookingRoomAdapter extends RecyclerView.Adapter<BookingRoomAdapter.RoomViewHolder> {
 
-    private List<Room> rooms;
-    private Set<String> selectedRoomIds;
-    private Set<String> disabledRoomIds;
+    private AvailabilityIndex index;
+    private AvailabilityIndex.Selection selection;
     private OnRoomSelectionChangeListener listener;
 
     public interface OnRoomSelectionChangeListener {
-        void onSelectionChanged(List<Room> selectedRooms, double totalPrice);
+        void onSelectionChanged(int selectedCount, double totalPrice);
     }
 
     public BookingRoomAdapter(OnRoomSelectionChangeListener listener) {
-        this.rooms = new ArrayList<>();
-        this.selectedRoomIds = new HashSet<>();
-        this.disabledRoomIds = new HashSet<>();
         this.listener = listener;
     }
 
-    public void setRooms(List<Room> rooms) {
-        this.rooms = rooms;
-        notifyDataSetChanged();
-    }
-
-    public void setDisabledRooms(Set<String> disabledRoomIds) {
-        this.disabledRoomIds = disabledRoomIds;
+    /**
+     * Show the rooms of an availability index; booked rooms are shown disabled.
+     * Adapter positions are the index's room positions.
+     */
+    public void setIndex(AvailabilityIndex index) {
+        this.index = index;
+        this.selection = index.newSelection();
         notifyDataSetChanged();
     }
 
     public List<Room> getSelectedRooms() {
-        List<Room> selected = new ArrayList<>();
-        for (Room room : rooms) {
-            if (selectedRoomIds.contains(room.getId())) {
-                selected.add(room);
-            }
-        }
-        return selected;
+        return selection != null ? selection.getRooms() : Collections.emptyList();
     }
 
     public double getTotalPrice() {
-        double total = 0;
-        for (Room room : getSelectedRooms()) {
-            total += room.getPrice();
-        }
-        return total;
+        return selection != null ? selection.getTotalPrice() : 0;
     }
 
     @NonNull
@@ -74,13 +59,12 @@ public class BookingRoomAdapter extends RecyclerView.Adapter<BookingRoomAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull RoomViewHolder holder, int position) {
-        Room room = rooms.get(position);
-        holder.bind(room, selectedRoomIds.contains(room.getId()));
+        holder.bind(index.getRoom(position), selection.isSelected(position), index.isBooked(position));
     }
 
     @Override
     public int getItemCount() {
-        return rooms.size();
+        return index != null ? index.size() : 0;
     }
 
     class RoomViewHolder extends RecyclerView.ViewHolder {
@@ -105,21 +89,15 @@ public class BookingRoomAdapter extends RecyclerView.Adapter<BookingRoomAdapter.
             });
 
             roomCheckBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                Room room = rooms.get(getAdapterPosition());
-                if (isChecked) {
-                    selectedRoomIds.add(room.getId());
-                } else {
-                    selectedRoomIds.remove(room.getId());
-                }
-                if (listener != null) {
-                    listener.onSelectionChanged(getSelectedRooms(), getTotalPrice());
+                int position = getAdapterPosition();
+                if (position == RecyclerView.NO_POSITION || selection == null) return;
+                if (selection.set(position, isChecked) && listener != null) {
+                    listener.onSelectionChanged(selection.count(), selection.getTotalPrice());
                 }
             });
         }
 
-        public void bind(Room room, boolean isSelected) {
-            boolean isDisabled = disabledRoomIds.contains(room.getId());
-            
+        public void bind(Room room, boolean isSelected, boolean isDisabled) {
             roomNameText.setText(room.getRoomNumber());
             roomTypeText.setText(room.getType());
             roomPriceText.setText(String.format("$%.2f", room.getPrice()));
@@ -133,9 +111,7 @@ public class BookingRoomAdapter extends RecyclerView.Adapter<BookingRoomAdapter.
             } else {
                 itemView.setAlpha(1.0f);
                 itemView.setOnClickListener(v -> {
-                    if (!disabledRoomIds.contains(room.getId())) {
-                        roomCheckBox.setChecked(!roomCheckBox.isChecked());
-                    }
+                    roomCheckBox.setChecked(!roomCheckBox.isChecked());
                 });
             }
 
@@ -0,0 +1,295 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Room occupancy of one tour instance.
+ * Each bookable room gets a dense index; booked rooms are bits in a BitSet with one
+ * mask per room type, so availability checks are O(1) and free counts O(words).
+ * Indexes are kept per tour instance and updated in place as bookings change.
+ * A room stays booked while any active booking holds it: each booking's room is
+ * tracked by booking id, so cancelling one of two bookings on a room keeps it taken.
+ */
+public class AvailabilityIndex {
+    public static final long DEFAULT_MAX_AGE_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Map<String, AvailabilityIndex> indexes = new ConcurrentHashMap<>();
+
+    private final String tourInstanceId;
+    private final List<Room> rooms;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Map<String, BitSet> typeMasks = new HashMap<>();
+    private final BitSet occupied;
+    private final int[] holders;
+    private final Map<String, Integer> bookingRooms = new HashMap<>();
+    // Rooms known to be booked by bookings whose ids this index has not seen
+    private final BitSet pinned;
+    private final long builtAt = System.currentTimeMillis();
+
+    private AvailabilityIndex(String tourInstanceId, List<Room> rooms) {
+        this.tourInstanceId = tourInstanceId;
+        this.rooms = Collections.unmodifiableList(new ArrayList<>(rooms));
+        this.occupied = new BitSet(rooms.size());
+        this.holders = new int[rooms.size()];
+        this.pinned = new BitSet(rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            positions.put(room.getId(), i);
+            typeMasks.computeIfAbsent(typeKey(room.getType()), k -> new BitSet(rooms.size())).set(i);
+        }
+    }
+
+    /**
+     * Build the index for a tour instance from its bookable rooms and bookings,
+     * replacing any previous one
+     */
+    public static AvailabilityIndex build(String tourInstanceId, List<Room> rooms, List<Booking> bookings) {
+        AvailabilityIndex index = new AvailabilityIndex(tourInstanceId, rooms);
+        if (bookings != null) {
+            for (Booking booking : bookings) {
+                index.apply(booking);
+            }
+        }
+        indexes.put(tourInstanceId, index);
+        return index;
+    }
+
+    /**
+     * Index built within maxAgeMs, or null if there is none
+     */
+    public static AvailabilityIndex get(String tourInstanceId, long maxAgeMs) {
+        AvailabilityIndex index = indexes.get(tourInstanceId);
+        if (index == null || System.currentTimeMillis() - index.builtAt > maxAgeMs) {
+            return null;
+        }
+        return index;
+    }
+
+    public static void invalidate(String tourInstanceId) {
+        indexes.remove(tourInstanceId);
+    }
+
+    /**
+     * Record an inserted or updated booking in its tour instance's index, if one is loaded
+     */
+    public static void onBookingSaved(Booking booking) {
+        AvailabilityIndex index = booking.getTourInstanceId() != null ? indexes.get(booking.getTourInstanceId()) : null;
+        if (index != null && !index.apply(booking)) {
+            invalidate(booking.getTourInstanceId());
+        }
+    }
+
+    /**
+     * Drop a deleted booking's hold on its room
+     */
+    public static void onBookingDeleted(Booking booking) {
+        AvailabilityIndex index = booking.getTourInstanceId() != null ? indexes.get(booking.getTourInstanceId()) : null;
+        if (index != null && !index.remove(booking)) {
+            invalidate(booking.getTourInstanceId());
+        }
+    }
+
+    public static void onRoomsBooked(String tourInstanceId, List<String> roomIds) {
+        AvailabilityIndex index = indexes.get(tourInstanceId);
+        if (index != null) {
+            for (String roomId : roomIds) {
+                index.markBooked(roomId);
+            }
+        }
+    }
+
+    /**
+     * Record the booking's hold on its room, or drop it if the booking is cancelled.
+     * Returns false when a cancelled booking was not known to this index, so whether
+     * its room is now free cannot be told and the index should be rebuilt.
+     */
+    public synchronized boolean apply(Booking booking) {
+        if ("CANCELLED".equalsIgnoreCase(booking.getStatus())) {
+            return remove(booking);
+        }
+        int i = indexOf(booking.getRoomId());
+        if (booking.getId() == null) {
+            if (i >= 0) markBooked(booking.getRoomId());
+            return true;
+        }
+        drop(booking.getId());
+        if (i >= 0) {
+            bookingRooms.put(booking.getId(), i);
+            holders[i]++;
+            occupied.set(i);
+        }
+        return true;
+    }
+
+    /**
+     * Drop a booking's hold on its room; false if the booking was not known to this index
+     */
+    public synchronized boolean remove(Booking booking) {
+        if (booking.getId() != null && drop(booking.getId())) {
+            return true;
+        }
+        // Nothing held the room through this index, so it can only have been free or pinned
+        int i = indexOf(booking.getRoomId());
+        return i < 0 || !pinned.get(i);
+    }
+
+    /**
+     * Mark a room booked by a booking whose id is not known, e.g. one made through book_rooms()
+     */
+    public synchronized void markBooked(String roomId) {
+        int i = indexOf(roomId);
+        if (i >= 0) {
+            pinned.set(i);
+            occupied.set(i);
+        }
+    }
+
+    private boolean drop(String bookingId) {
+        Integer previous = bookingRooms.remove(bookingId);
+        if (previous == null) {
+            return false;
+        }
+        int i = previous;
+        holders[i]--;
+        occupied.set(i, holders[i] > 0 || pinned.get(i));
+        return true;
+    }
+
+    public String getTourInstanceId() {
+        return tourInstanceId;
+    }
+
+    /**
+     * Rooms in index order
+     */
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    public Room getRoom(int index) {
+        return rooms.get(index);
+    }
+
+    /**
+     * Dense index of a room, or -1 if it is not part of this index
+     */
+    public int indexOf(String roomId) {
+        Integer i = roomId != null ? positions.get(roomId) : null;
+        return i != null ? i : -1;
+    }
+
+    public synchronized boolean isBooked(int index) {
+        return occupied.get(index);
+    }
+
+    public synchronized boolean isAvailable(String roomId) {
+        int i = indexOf(roomId);
+        return i >= 0 && !occupied.get(i);
+    }
+
+    public synchronized int freeCount() {
+        return rooms.size() - occupied.cardinality();
+    }
+
+    public synchronized int freeCount(String type) {
+        return freeOfType(type).cardinality();
+    }
+
+    /**
+     * Up to count free rooms of the given type, in index order
+     */
+    public synchronized List<Room> findFree(String type, int count) {
+        BitSet free = freeOfType(type);
+        List<Room> found = new ArrayList<>();
+        for (int i = free.nextSetBit(0); i >= 0 && found.size() < count; i = free.nextSetBit(i + 1)) {
+            found.add(rooms.get(i));
+        }
+        return found;
+    }
+
+    private BitSet freeOfType(String type) {
+        BitSet mask = typeMasks.get(typeKey(type));
+        if (mask == null) {
+            return new BitSet();
+        }
+        BitSet free = (BitSet) mask.clone();
+        free.andNot(occupied);
+        return free;
+    }
+
+    private static String typeKey(String type) {
+        return type != null ? type.trim().toLowerCase() : "";
+    }
+
+    public Selection newSelection() {
+        return new Selection();
+    }
+
+    /**
+     * Rooms picked from this index, with a running count and price total.
+     * Not thread-safe; meant to be driven from the UI thread.
+     */
+    public class Selection {
+        private final BitSet selected = new BitSet(rooms.size());
+        private double totalPrice;
+
+        /**
+         * Select or deselect the room at index; booked rooms cannot be selected.
+         * Returns whether the selection changed.
+         */
+        public boolean set(int index, boolean select) {
+            if (selected.get(index) == select || (select && isBooked(index))) {
+                return false;
+            }
+            selected.set(index, select);
+            totalPrice += select ? rooms.get(index).getPrice() : -rooms.get(index).getPrice();
+            return true;
+        }
+
+        public boolean isSelected(int index) {
+            return selected.get(index);
+        }
+
+        public int count() {
+            return selected.cardinality();
+        }
+
+        public boolean isEmpty() {
+            return selected.isEmpty();
+        }
+
+        public double getTotalPrice() {
+            return totalPrice;
+        }
+
+        public List<Room> getRooms() {
+            List<Room> picked = new ArrayList<>();
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                picked.add(rooms.get(i));
+            }
+            return picked;
+        }
+
+        public List<String> getRoomIds() {
+            List<String> ids = new ArrayList<>();
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                ids.add(rooms.get(i).getId());
+            }
+            return ids;
+        }
+    }
+}
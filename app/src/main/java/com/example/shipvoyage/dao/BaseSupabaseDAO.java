@@ -4,28 +4,54 @@ import android.content.Context;
 import android.util.Log;
 
 import com.example.shipvoyage.util.SupabaseClient;
+import com.example.shipvoyage.util.ThreadPool;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * Base DAO class for Supabase PostgreSQL operations
  * Handles common CRUD operations via REST API (PostgREST)
  * All operations are async using CompletableFuture
+ * Reads always go to the server; identical reads in flight at the same time share
+ * one request, but nothing is kept once it completes. Holding data between screens
+ * and deciding when it is stale is EntityRepository's job (see Repositories).
  */
 public abstract class BaseSupabaseDAO {
     private static final String TAG = "BaseSupabaseDAO";
+    private static final MediaType JSON = MediaType.parse("application/json");
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /**
+     * Row count reported when the query named a column the table does not have
+     */
+    public static final int MISSING_COLUMN = -2;
+    // PostgreSQL's undefined_column error, passed through by PostgREST
+    private static final String UNDEFINED_COLUMN_CODE = "\"42703\"";
+    // Identical reads in flight at the same time, across every DAO
+    private static final SingleFlight sharedReads = new SingleFlight();
     protected final OkHttpClient httpClient;
     protected final Gson gson;
     protected final String baseUrl;
@@ -40,73 +66,116 @@ public abstract class BaseSupabaseDAO {
     }
 
     /**
-     * Get single row by ID
+     * Run a request on the shared DAO executor.
+     * A full queue fails the returned future instead of throwing on the caller.
      */
-    protected <T> CompletableFuture<T> getById(String id, Class<T> clazz) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String url = baseUrl + "/" + tableName + "?id=eq." + id;
-                Request request = new Request.Builder()
-                        .url(url)
-                        .get()
-                        .build();
+    protected <T> CompletableFuture<T> async(Supplier<T> task) {
+        return ThreadPool.supplyAsync(task);
+    }
 
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        String jsonResponse = response.body().string();
-                        JsonArray arr = gson.fromJson(jsonResponse, JsonArray.class);
-                        if (arr != null && arr.size() > 0) {
-                            return gson.fromJson(arr.get(0), clazz);
-                        }
-                    } else {
-                        Log.e(TAG, "Error response: " + response.code());
-                    }
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching data: " + e.getMessage(), e);
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Counters for reads that joined an identical request already in flight
+     */
+    public static SingleFlight getSharedReads() {
+        return sharedReads;
+    }
+
+    /**
+     * Run onWritten() once a write has succeeded
+     */
+    private CompletableFuture<Boolean> invalidateOnSuccess(CompletableFuture<Boolean> write) {
+        return write.thenApply(success -> {
+            if (Boolean.TRUE.equals(success)) {
+                onWritten();
             }
-            return null;
-        }, Executors.newCachedThreadPool());
+            return success;
+        });
     }
 
     /**
-     * Get all rows from table
+     * Call after a successful write: keeps later reads from joining requests
+     * that started before the write
      */
-    public <T> CompletableFuture<List<T>> getAll(Class<T> clazz) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<T> results = new ArrayList<>();
-            try {
-                String url = baseUrl + "/" + tableName;
-                Request request = new Request.Builder()
-                        .url(url)
-                        .get()
-                        .build();
+    protected void onWritten() {
+        sharedReads.forgetAll();
+    }
 
-                try (Response response = httpClient.newCall(request).execute()) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        String jsonResponse = response.body().string();
-                        JsonArray arr = gson.fromJson(jsonResponse, JsonArray.class);
-                        if (arr != null) {
-                            for (int i = 0; i < arr.size(); i++) {
-                                results.add(gson.fromJson(arr.get(i), clazz));
-                            }
-                        }
-                    } else {
-                        Log.e(TAG, "Error response: " + response.code());
-                    }
-                }
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching data: " + e.getMessage(), e);
+    /**
+     * Load every row at url into a list; concurrent loads of the same url share one request.
+     * A failed load completes exceptionally with an IOException, so it is never
+     * mistaken for an empty table.
+     * Each caller gets its own copy of the list; the rows themselves are shared.
+     */
+    private <T> CompletableFuture<List<T>> loadList(String url, Class<T> clazz) {
+        CompletableFuture<List<T>> future = sharedReads.run(readKey("GET", url, clazz), () -> async(() -> {
+            List<T> results = new ArrayList<>();
+            if (fetchRows(url, clazz, results::add) < 0) {
+                throw new CompletionException(new IOException("Failed to load " + tableName));
             }
             return results;
-        }, Executors.newCachedThreadPool());
+        }));
+        return map(future, ArrayList::new);
+    }
+
+    /**
+     * thenApply() that passes cancellation back to the source, so a caller that gives up
+     * on a derived result (e.g. a fragment leaving the screen) releases the load behind it
+     */
+    protected static <S, T> CompletableFuture<T> map(CompletableFuture<S> source, Function<? super S, ? extends T> fn) {
+        CompletableFuture<T> result = source.thenApply(fn);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                source.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Get single row by ID
+     */
+    protected <T> CompletableFuture<T> getById(String id, Class<T> clazz) {
+        return map(loadList(baseUrl + "/" + tableName + "?id=eq." + id, clazz),
+                list -> list.isEmpty() ? null : list.get(0));
+    }
+
+    /**
+     * Get all rows from table.
+     * Pass column names to fetch only those fields; the rest stay at their defaults.
+     */
+    public <T> CompletableFuture<List<T>> getAll(Class<T> clazz, String... columns) {
+        return loadList(tableUrl(null, columns), clazz);
+    }
+
+    /**
+     * Stream all rows to the callback as they are decoded, without building a list.
+     * The callback runs on the DAO worker thread. Completes with the row count, or -1 on error.
+     */
+    public <T> CompletableFuture<Integer> streamAll(Class<T> clazz, RowCallback<T> callback, String... columns) {
+        return async(() -> fetchRows(tableUrl(null, columns), clazz, callback));
+    }
+
+    /**
+     * Stream rows whose updated_at is at or after the watermark, oldest first, as raw JSON.
+     * A null watermark streams the whole table. Needs the updated_at column from
+     * database_delta_sync.sql. Completes with the row count, MISSING_COLUMN if the
+     * table has no updated_at column, or -1 on any other error.
+     */
+    public CompletableFuture<Integer> streamChangedSince(String watermark, RowCallback<JsonObject> callback, String... columns) {
+        String filter = (watermark != null ? "updated_at=gte." + encodeValue(watermark) + "&" : "")
+                + "order=updated_at.asc";
+        return async(() -> fetchRows(tableUrl(filter, withColumn(columns, "updated_at")), JsonObject.class, callback));
     }
 
     /**
      * Insert new row
      */
     public CompletableFuture<Boolean> insert(Object data) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidateOnSuccess(async(() -> {
             try {
                 String json = gson.toJson(data);
                 String url = baseUrl + "/" + tableName;
@@ -131,14 +200,128 @@ public abstract class BaseSupabaseDAO {
                 Log.e(TAG, "Error inserting data: " + e.getMessage(), e);
                 return false;
             }
-        }, Executors.newCachedThreadPool());
+        }));
+    }
+
+    /**
+     * Insert many rows, one POST per chunk of DEFAULT_BATCH_SIZE rows
+     */
+    public CompletableFuture<BatchResult> insertAll(List<?> rows) {
+        return writeAll(rows, DEFAULT_BATCH_SIZE, "return=minimal");
+    }
+
+    /**
+     * Insert many rows, updating those whose primary key already exists
+     */
+    public CompletableFuture<BatchResult> upsertAll(List<?> rows) {
+        return writeAll(rows, DEFAULT_BATCH_SIZE, "resolution=merge-duplicates,return=minimal");
+    }
+
+    /**
+     * Write rows as JSON array bodies of at most batchSize rows.
+     * PostgREST applies each chunk atomically, so a rejected chunk is split and
+     * retried until the offending rows are isolated; the result lists exactly those.
+     * If a split half of several rows is rejected entirely, the rows are taken to be
+     * bad as a whole and the other half is tried once without splitting further, so a
+     * chunk of invalid rows costs a few requests per level rather than one per row.
+     */
+    protected CompletableFuture<BatchResult> writeAll(List<?> rows, int batchSize, String prefer) {
+        return async(() -> {
+            BatchResult result = new BatchResult();
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                writeChunk(rows, start, Math.min(rows.size(), start + batchSize), prefer, result, true);
+            }
+            if (result.getSucceededCount() > 0) {
+                onWritten();
+            }
+            Log.d(TAG, "Batch write to " + tableName + ": " + result);
+            return result;
+        });
+    }
+
+    /**
+     * Write rows[from, to) and return how many were written
+     */
+    private int writeChunk(List<?> rows, int from, int to, String prefer, BatchResult result, boolean split) {
+        JsonArray body = new JsonArray();
+        Set<String> columns = new LinkedHashSet<>();
+        for (int i = from; i < to; i++) {
+            JsonElement json = gson.toJsonTree(rows.get(i));
+            body.add(json);
+            if (json.isJsonObject()) {
+                columns.addAll(json.getAsJsonObject().keySet());
+            }
+        }
+
+        int code = 0;
+        String message;
+        try {
+            // columns= lets rows that omit null fields share one statement
+            String url = tableUrl(columns.isEmpty() ? null : "columns=" + String.join(",", columns));
+            Request request = new Request.Builder()
+                    .url(url)
+                    .header("Prefer", prefer)
+                    .post(RequestBody.create(body.toString(), JSON))
+                    .build();
+
+            try (Response response = httpClient.newCall(request).execute()) {
+                if (response.isSuccessful()) {
+                    result.addSucceeded(to - from);
+                    return to - from;
+                }
+                code = response.code();
+                message = response.body() != null ? response.body().string() : response.message();
+            }
+        } catch (Exception e) {
+            message = e.getMessage();
+        }
+
+        // A 4xx is caused by some row in the chunk; server and network errors fail it whole
+        if (split && to - from > 1 && code >= 400 && code < 500) {
+            int mid = (from + to) >>> 1;
+            int written = writeChunk(rows, from, mid, prefer, result, true);
+            boolean firstHalfRejected = written == 0 && mid - from > 1;
+            return written + writeChunk(rows, mid, to, prefer, result, !firstHalfRejected);
+        }
+        Log.e(TAG, "Batch write failed for rows " + from + "-" + (to - 1) + " - Code: " + code + ", Body: " + message);
+        for (int i = from; i < to; i++) {
+            result.addFailure(i, rows.get(i), code, message);
+        }
+        return 0;
+    }
+
+    /**
+     * Call a database function (POST /rpc/function) with params as its named arguments
+     * and decode the JSON it returns. Completes with null if the call failed, e.g. the
+     * function is not installed or the server could not be reached.
+     */
+    protected <T> CompletableFuture<T> callRpc(String function, JsonObject params, Class<T> resultClass) {
+        return async(() -> {
+            try {
+                Request request = new Request.Builder()
+                        .url(baseUrl + "/rpc/" + function)
+                        .post(RequestBody.create(params.toString(), JSON))
+                        .build();
+
+                try (Response response = httpClient.newCall(request).execute()) {
+                    if (response.isSuccessful() && response.body() != null) {
+                        return gson.fromJson(response.body().charStream(), resultClass);
+                    }
+                    String errorBody = response.body() != null ? response.body().string() : "No error body";
+                    Log.e(TAG, function + " failed - Code: " + response.code() + ", Body: " + errorBody);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error calling " + function + ": " + e.getMessage(), e);
+            }
+            return null;
+        });
     }
 
     /**
      * Update existing row by ID
      */
     public CompletableFuture<Boolean> updateById(String id, Object data) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidateOnSuccess(async(() -> {
             try {
                 String json = gson.toJson(data);
                 String url = baseUrl + "/" + tableName + "?id=eq." + id;
@@ -160,14 +343,14 @@ public abstract class BaseSupabaseDAO {
                 Log.e(TAG, "Error updating data: " + e.getMessage(), e);
                 return false;
             }
-        }, Executors.newCachedThreadPool());
+        }));
     }
 
     /**
      * Delete row by ID
      */
     public CompletableFuture<Boolean> deleteById(String id) {
-        return CompletableFuture.supplyAsync(() -> {
+        return invalidateOnSuccess(async(() -> {
             try {
                 String url = baseUrl + "/" + tableName + "?id=eq." + id;
                 Request request = new Request.Builder()
@@ -186,40 +369,205 @@ public abstract class BaseSupabaseDAO {
                 Log.e(TAG, "Error deleting data: " + e.getMessage(), e);
                 return false;
             }
-        }, Executors.newCachedThreadPool());
+        }));
     }
 
     /**
-     * Query with filter condition (PostgREST syntax)
-     * Example: "email=eq.user@example.com"
+     * Query with filter condition (PostgREST syntax), optionally limited to some columns
+     * Example: query("email=eq.user@example.com", User.class, "id", "name")
      */
-    protected <T> CompletableFuture<List<T>> query(String filter, Class<T> clazz) {
-        return CompletableFuture.supplyAsync(() -> {
+    protected <T> CompletableFuture<List<T>> query(String filter, Class<T> clazz, String... columns) {
+        return loadList(tableUrl(filter, columns), clazz);
+    }
+
+    /**
+     * Streaming variant of query(); rows are handed to the callback one at a time
+     */
+    protected <T> CompletableFuture<Integer> streamQuery(String filter, Class<T> clazz, RowCallback<T> callback) {
+        return async(() -> fetchRows(tableUrl(filter), clazz, callback));
+    }
+
+    /**
+     * GET a JSON array and decode it element by element straight off the socket,
+     * so only one row is materialised at a time. Errors are logged, not thrown;
+     * the row count is returned, or -1 if the request failed.
+     */
+    protected <T> int fetchRows(String url, Class<T> clazz, RowCallback<T> callback) {
+        int count = -1;
+        try {
+            Request request = new Request.Builder()
+                    .url(url)
+                    .get()
+                    .build();
+
+            try (Response response = httpClient.newCall(request).execute()) {
+                if (response.isSuccessful() && response.body() != null) {
+                    count = decodeRows(response.body(), clazz, callback);
+                } else {
+                    String errorBody = response.body() != null ? response.body().string() : "";
+                    Log.e(TAG, "Error response: " + response.code() + ", Body: " + errorBody);
+                    if (response.code() == 400 && errorBody.contains(UNDEFINED_COLUMN_CODE)) {
+                        count = MISSING_COLUMN;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error querying data: " + e.getMessage(), e);
+        }
+        return count;
+    }
+
+    /**
+     * Decode a JSON array body element by element, handing each row to the callback
+     */
+    protected <T> int decodeRows(ResponseBody body, Class<T> clazz, RowCallback<T> callback) throws IOException {
+        int count = 0;
+        TypeAdapter<T> adapter = gson.getAdapter(clazz);
+        JsonReader reader = new JsonReader(body.charStream());
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                callback.onRow(adapter.read(reader));
+                count++;
+            }
+            reader.endArray();
+        }
+        return count;
+    }
+
+    /**
+     * Get one page of rows matching the filter (may be null), ordered by id.
+     * Sends limit/offset and Prefer: count=exact so the total comes back in Content-Range.
+     * Fails with the IOException if the page cannot be fetched, rather than returning an
+     * empty page that would look like the end of the data; callers sharing the request
+     * all see the failure, and the next call tries again.
+     */
+    protected <T> CompletableFuture<Page<T>> queryPage(String filter, Class<T> clazz, int offset, int limit, String... columns) {
+        String url = tableUrl(filter, columns)
+                + (queryString(filter, columns).isEmpty() ? "?" : "&")
+                + "order=id.asc&limit=" + limit + "&offset=" + offset;
+        Supplier<CompletableFuture<Page<T>>> loader = () -> async(() -> {
             List<T> results = new ArrayList<>();
             try {
-                String url = baseUrl + "/" + tableName + "?" + filter;
                 Request request = new Request.Builder()
                         .url(url)
+                        .header("Prefer", "count=exact")
                         .get()
                         .build();
 
                 try (Response response = httpClient.newCall(request).execute()) {
-                    if (response.isSuccessful() && response.body() != null) {
-                        String jsonResponse = response.body().string();
-                        JsonArray arr = gson.fromJson(jsonResponse, JsonArray.class);
-                        if (arr != null) {
-                            for (int i = 0; i < arr.size(); i++) {
-                                results.add(gson.fromJson(arr.get(i), clazz));
-                            }
-                        }
-                    } else {
+                    if (!response.isSuccessful() || response.body() == null) {
                         Log.e(TAG, "Error response: " + response.code());
+                        throw new IOException("HTTP " + response.code() + " fetching rows from offset " + offset);
+                    }
+                    long total = Page.parseTotal(response.header("Content-Range"));
+                    decodeRows(response.body(), clazz, results::add);
+                    return new Page<>(results, offset, limit, total);
+                }
+            } catch (IOException | JsonParseException e) {
+                Log.e(TAG, "Error fetching page: " + e.getMessage(), e);
+                throw new CompletionException(e);
+            }
+        });
+        return map(sharedReads.run(readKey("PAGE", url, clazz), loader),
+                page -> new Page<>(new ArrayList<>(page.getItems()),
+                        page.getOffset(), page.getLimit(), page.getTotalCount()));
+    }
+
+    /**
+     * Iterate over all rows matching the filter page by page, prefetching the next page
+     */
+    protected <T> PageIterator<T> pages(String filter, Class<T> clazz, int pageSize, String... columns) {
+        return new PageIterator<>((offset, limit) -> queryPage(filter, clazz, offset, limit, columns), pageSize);
+    }
+
+    /**
+     * Count rows matching the filter (null for all) with a HEAD request,
+     * so no rows are transferred. Returns -1 on error, so a failure is never
+     * mistaken for an empty table.
+     */
+    public CompletableFuture<Long> count(String filter) {
+        String url = tableUrl(filter, "id");
+        return sharedReads.run(readKey("HEAD", url, Long.class), () -> async(() -> {
+            try {
+                Request request = new Request.Builder()
+                        .url(url)
+                        .header("Prefer", "count=exact")
+                        .head()
+                        .build();
+
+                try (Response response = httpClient.newCall(request).execute()) {
+                    if (response.isSuccessful()) {
+                        long total = Page.parseTotal(response.header("Content-Range"));
+                        if (total < 0) {
+                            Log.e(TAG, "Count missing from Content-Range");
+                        }
+                        return total;
                     }
+                    Log.e(TAG, "Count error: " + response.code());
                 }
             } catch (Exception e) {
-                Log.e(TAG, "Error querying data: " + e.getMessage(), e);
+                Log.e(TAG, "Error counting rows: " + e.getMessage(), e);
             }
-            return results;
-        }, Executors.newCachedThreadPool());
+            return -1L;
+        }));
+    }
+
+    /**
+     * Key for sharing a read: the same url (which carries the select= projection)
+     * decoded into the same class, by the same kind of request
+     */
+    private static String readKey(String kind, String url, Class<?> clazz) {
+        return kind + " " + clazz.getName() + " " + url;
+    }
+
+    /**
+     * Build the table URL with an optional filter and select= projection
+     */
+    protected String tableUrl(String filter, String... columns) {
+        StringBuilder url = new StringBuilder(baseUrl).append('/').append(tableName);
+        String query = queryString(filter, columns);
+        if (!query.isEmpty()) {
+            url.append('?').append(query);
+        }
+        return url.toString();
+    }
+
+    /**
+     * Make a value safe inside a query string; PostgREST reads '+' as a space
+     */
+    protected static String encodeValue(String value) {
+        return value.replace("+", "%2B").replace(" ", "%20");
+    }
+
+    /**
+     * Add a column to a projection; an empty projection already selects everything
+     */
+    private static String[] withColumn(String[] columns, String column) {
+        if (columns == null || columns.length == 0 || Arrays.asList(columns).contains(column)) {
+            return columns;
+        }
+        String[] result = Arrays.copyOf(columns, columns.length + 1);
+        result[columns.length] = column;
+        return result;
+    }
+
+    private static String queryString(String filter, String... columns) {
+        StringBuilder query = new StringBuilder();
+        if (columns != null && columns.length > 0) {
+            query.append("select=").append(String.join(",", columns));
+        }
+        if (filter != null && !filter.isEmpty()) {
+            if (query.length() > 0) query.append('&');
+            query.append(filter);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Receives decoded rows from the streaming read methods
+     */
+    public interface RowCallback<T> {
+        void onRow(T row);
     }
 }
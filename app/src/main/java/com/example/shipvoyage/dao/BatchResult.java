@@ -0,0 +1,74 @@
+package com.example.shipvoyage.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of insertAll/upsertAll: how many rows were written and which were not
+ */
+public class BatchResult {
+    private int succeeded;
+    private final List<Failure> failures = new ArrayList<>();
+
+    /**
+     * One rejected row, with its position in the list passed to the DAO
+     */
+    public static class Failure {
+        private final int index;
+        private final Object row;
+        private final int code;
+        private final String message;
+
+        Failure(int index, Object row, int code, String message) {
+            this.index = index;
+            this.row = row;
+            this.code = code;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Object getRow() {
+            return row;
+        }
+
+        /**
+         * HTTP status, or 0 if the request never got a response
+         */
+        public int getCode() {
+            return code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    void addSucceeded(int count) {
+        succeeded += count;
+    }
+
+    void addFailure(int index, Object row, int code, String message) {
+        failures.add(new Failure(index, row, code, message));
+    }
+
+    public int getSucceededCount() {
+        return succeeded;
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{succeeded=" + succeeded + ", failed=" + failures.size() + "}";
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Room;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of BookingDAO.bookRooms: the created booking ids, or the rooms that were
+ * already taken. A request with conflicts books nothing.
+ */
+public class BookRoomsResult {
+    @SerializedName("booking_ids")
+    private List<String> bookingIds = new ArrayList<>();
+
+    @SerializedName("conflicts")
+    private List<String> conflicts = new ArrayList<>();
+
+    public List<String> getBookingIds() {
+        return bookingIds != null ? Collections.unmodifiableList(bookingIds) : Collections.emptyList();
+    }
+
+    /**
+     * Ids of requested rooms that already have an active booking
+     */
+    public List<String> getConflicts() {
+        return conflicts != null ? Collections.unmodifiableList(conflicts) : Collections.emptyList();
+    }
+
+    /**
+     * Room numbers of the conflicting rooms, in the order they were requested
+     */
+    public List<String> getConflictingRoomNumbers(List<Room> requested) {
+        List<String> conflicts = getConflicts();
+        List<String> numbers = new ArrayList<>();
+        for (Room room : requested) {
+            if (conflicts.contains(room.getId())) {
+                numbers.add(room.getRoomNumber());
+            }
+        }
+        return numbers;
+    }
+
+    public boolean isBooked() {
+        return getConflicts().isEmpty() && !getBookingIds().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BookRoomsResult{booked=" + getBookingIds().size() + ", conflicts=" + getConflicts() + "}";
+    }
+}
@@ -2,10 +2,19 @@ package com.example.shipvoyage.dao;
 
 import android.content.Context;
 import com.example.shipvoyage.model.Booking;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class BookingDAO extends BaseSupabaseDAO {
+    /**
+     * Stored booking columns, in the order exports write them
+     */
+    public static final String[] EXPORT_COLUMNS = {"id", "tour_instance_id", "room_id", "name", "phone", "email",
+            "payment_method", "payment_details", "total_payment", "paid_amount", "due_amount", "discount",
+            "adult_count", "child_count", "status"};
+
     public BookingDAO(Context context) {
         super(context, "bookings");
     }
@@ -14,14 +23,52 @@ public class BookingDAO extends BaseSupabaseDAO {
      * Add new booking
      */
     public CompletableFuture<Boolean> addBooking(Booking booking) {
-        return insert(booking);
+        return insert(booking).thenApply(success -> {
+            if (success) AvailabilityIndex.onBookingSaved(booking);
+            return success;
+        });
+    }
+
+    /**
+     * Book several rooms of one tour instance in one round trip.
+     * Calls the book_rooms() RPC (see database_book_rooms.sql), which checks availability
+     * and inserts one booking per room in a single transaction; if any room is taken
+     * nothing is booked and the taken rooms are returned as conflicts.
+     * details carries the customer and payment fields; its id and room are ignored.
+     * Completes with null if the server could not be reached.
+     */
+    public CompletableFuture<BookRoomsResult> bookRooms(String tourInstanceId, List<String> roomIds, Booking details) {
+        JsonArray rooms = new JsonArray();
+        for (String roomId : roomIds) {
+            rooms.add(roomId);
+        }
+        JsonObject params = new JsonObject();
+        params.addProperty("p_tour_instance_id", tourInstanceId);
+        params.add("p_room_ids", rooms);
+        params.add("p_booking", gson.toJsonTree(details));
+
+        CompletableFuture<BookRoomsResult> future = callRpc("book_rooms", params, BookRoomsResult.class);
+        return future.thenApply(result -> {
+            if (result != null) {
+                // Conflicting rooms are known to be taken too
+                AvailabilityIndex.onRoomsBooked(tourInstanceId, result.getConflicts());
+                if (result.isBooked()) {
+                    AvailabilityIndex.onRoomsBooked(tourInstanceId, roomIds);
+                    onWritten();
+                }
+            }
+            return result;
+        });
     }
 
     /**
      * Update booking
      */
     public CompletableFuture<Boolean> updateBooking(String id, Booking booking) {
-        return updateById(id, booking);
+        return updateById(id, booking).thenApply(success -> {
+            if (success) AvailabilityIndex.onBookingSaved(booking);
+            return success;
+        });
     }
 
     /**
@@ -38,6 +85,21 @@ public class BookingDAO extends BaseSupabaseDAO {
         return getAll(Booking.class);
     }
 
+    /**
+     * Count all bookings without downloading them; -1 on error
+     */
+    public CompletableFuture<Long> countBookings() {
+        return count(null);
+    }
+
+    /**
+     * Page through bookings as raw rows of EXPORT_COLUMNS, optionally for one tour instance (null for all)
+     */
+    public PageIterator<JsonObject> getBookingRowPages(String tourInstanceId, int pageSize) {
+        String filter = tourInstanceId != null ? "tour_instance_id=eq." + tourInstanceId : null;
+        return pages(filter, JsonObject.class, pageSize, EXPORT_COLUMNS);
+    }
+
     /**
      * Get bookings by tour instance ID
      */
@@ -0,0 +1,93 @@
+package com.example.shipvoyage.dao;
+
+import android.content.Context;
+
+import com.example.shipvoyage.model.DashboardStats;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * DashboardStatsDAO - admin dashboard counters in one round trip
+ * Calls the dashboard_stats() RPC (see database_dashboard_stats.sql) and falls back
+ * to parallel count=exact HEAD requests when the function is not installed.
+ * Nothing is cached here; AdminViewModel keeps the last result for the dashboard.
+ */
+public class DashboardStatsDAO {
+    private final ShipDAO shipDAO;
+    private final TourDAO tourDAO;
+    private final TourInstanceDAO tourInstanceDAO;
+    private final BookingDAO bookingDAO;
+    private final UserDAO userDAO;
+
+    public DashboardStatsDAO(Context context) {
+        shipDAO = new ShipDAO(context);
+        tourDAO = new TourDAO(context);
+        tourInstanceDAO = new TourInstanceDAO(context);
+        bookingDAO = new BookingDAO(context);
+        userDAO = new UserDAO(context);
+    }
+
+    /**
+     * Get dashboard stats from the RPC, or from table counts if it is unavailable.
+     * Upcoming and current tours are judged against the device's local date in both
+     * paths, since tour dates are the ship's local calendar dates.
+     * Fails if the stats cannot be loaded.
+     */
+    public CompletableFuture<DashboardStats> getStats() {
+        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT).format(new Date());
+        JsonObject params = new JsonObject();
+        params.addProperty("p_today", today);
+
+        CompletableFuture<DashboardStats> rpc = tourInstanceDAO.callRpc("dashboard_stats", params, DashboardStats.class);
+        CompletableFuture<DashboardStats> result = rpc.thenCompose(stats -> stats != null
+                ? CompletableFuture.completedFuture(stats)
+                : fetchFromCounts(today));
+        // Leaving the dashboard before the RPC runs skips it
+        result.whenComplete((stats, error) -> {
+            if (result.isCancelled()) {
+                rpc.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The same counts as dashboard_stats(), one HEAD request each
+     */
+    private CompletableFuture<DashboardStats> fetchFromCounts(String today) {
+        CompletableFuture<Long> ships = shipDAO.countShips();
+        CompletableFuture<Long> tours = tourDAO.countTours();
+        CompletableFuture<Long> instances = tourInstanceDAO.count(null);
+        CompletableFuture<Long> upcoming = tourInstanceDAO.count("start_date=gt." + today);
+        CompletableFuture<Long> current = tourInstanceDAO.count("start_date=lte." + today + "&end_date=gt." + today);
+        CompletableFuture<Long> bookings = bookingDAO.countBookings();
+        CompletableFuture<Long> customers = userDAO.countUsersByRole("passenger");
+
+        return CompletableFuture.allOf(ships, tours, instances, upcoming, current, bookings, customers)
+                .thenApply(v -> {
+                    // One failed count would otherwise show as a real zero
+                    for (CompletableFuture<Long> count : Arrays.asList(ships, tours, instances,
+                            upcoming, current, bookings, customers)) {
+                        if (count.join() < 0) {
+                            throw new CompletionException(new IOException("Failed to load dashboard counts"));
+                        }
+                    }
+                    DashboardStats stats = new DashboardStats();
+                    stats.setShipCount(ships.join());
+                    stats.setTourCount(tours.join());
+                    stats.setTourInstanceCount(instances.join());
+                    stats.setUpcomingTourCount(upcoming.join());
+                    stats.setCurrentTourCount(current.join());
+                    stats.setBookingCount(bookings.join());
+                    stats.setCustomerCount(customers.join());
+                    return stats;
+                });
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+import com.example.shipvoyage.model.Ship;
+import com.example.shipvoyage.model.Tour;
+import com.example.shipvoyage.model.TourInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Id lookup maps for joining rows client-side.
+ * Each set*() call builds its map once for that dataset; the fill*() methods
+ * then resolve display names with hash lookups instead of nested loops.
+ * Maps are swapped whole, so a set*() on a worker thread is safe to read from the UI thread.
+ */
+public class EntityIndex {
+    private volatile Map<String, Tour> tours = Collections.emptyMap();
+    private volatile Map<String, Ship> ships = Collections.emptyMap();
+    private volatile Map<String, Room> rooms = Collections.emptyMap();
+    private volatile Map<String, TourInstance> instances = Collections.emptyMap();
+
+    /**
+     * Build an id to entity map; rows without an id are skipped
+     */
+    public static <T> Map<String, T> byId(Collection<T> entities, Function<T, String> idOf) {
+        Map<String, T> map = new HashMap<>();
+        if (entities != null) {
+            for (T entity : entities) {
+                String id = entity != null ? idOf.apply(entity) : null;
+                if (id != null) {
+                    map.put(id, entity);
+                }
+            }
+        }
+        return map;
+    }
+
+    public EntityIndex setTours(Collection<Tour> list) {
+        tours = byId(list, Tour::getId);
+        return this;
+    }
+
+    public EntityIndex setShips(Collection<Ship> list) {
+        ships = byId(list, Ship::getId);
+        return this;
+    }
+
+    public EntityIndex setRooms(Collection<Room> list) {
+        rooms = byId(list, Room::getId);
+        return this;
+    }
+
+    /**
+     * Index tour instances so bookings can be given their tour name
+     */
+    public EntityIndex setInstances(Collection<TourInstance> list) {
+        instances = byId(list, TourInstance::getId);
+        return this;
+    }
+
+    public Tour getTour(String id) {
+        return id != null ? tours.get(id) : null;
+    }
+
+    public Ship getShip(String id) {
+        return id != null ? ships.get(id) : null;
+    }
+
+    public Room getRoom(String id) {
+        return id != null ? rooms.get(id) : null;
+    }
+
+    public TourInstance getInstance(String id) {
+        return id != null ? instances.get(id) : null;
+    }
+
+    /**
+     * Set tour name, route and ship name on each instance whose tour/ship is indexed
+     */
+    public void fillInstances(Collection<TourInstance> list) {
+        if (list == null) return;
+        for (TourInstance instance : list) {
+            Tour tour = getTour(instance.getTourId());
+            if (tour != null) {
+                instance.setTourName(tour.getName());
+                instance.setFromLocation(tour.getFrom());
+                instance.setToLocation(tour.getTo());
+            }
+            Ship ship = getShip(instance.getShipId());
+            if (ship != null) {
+                instance.setShipName(ship.getName());
+            }
+        }
+    }
+
+    /**
+     * Bookings of one tour instance (null for all) that are not cancelled, in list order
+     */
+    public static List<Booking> activeBookings(Collection<Booking> list, String tourInstanceId) {
+        List<Booking> active = new ArrayList<>();
+        if (list == null) return active;
+        for (Booking booking : list) {
+            if (booking == null || "CANCELLED".equalsIgnoreCase(booking.getStatus())) {
+                continue;
+            }
+            if (tourInstanceId == null || tourInstanceId.equals(booking.getTourInstanceId())) {
+                active.add(booking);
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Set room name/type and tour name, route and dates on each booking, and replace
+     * selected room ids with room numbers (falling back to the main room)
+     */
+    public void fillBookings(Collection<Booking> list) {
+        if (list == null) return;
+        for (Booking booking : list) {
+            Room room = getRoom(booking.getRoomId());
+            if (room != null) {
+                booking.setRoomName(room.getRoomNumber());
+                booking.setRoomType(room.getType());
+            }
+
+            TourInstance instance = getInstance(booking.getTourInstanceId());
+            if (instance != null) {
+                if (instance.getTourName() != null) {
+                    booking.setTourName(instance.getTourName());
+                    booking.setFromLocation(instance.getFromLocation());
+                    booking.setToLocation(instance.getToLocation());
+                }
+                booking.setDepartureDate(instance.getStartDate());
+                booking.setReturnDate(instance.getEndDate());
+            }
+
+            if (booking.getSelectedRooms() == null || booking.getSelectedRooms().isEmpty()) {
+                if (room != null) {
+                    List<String> roomNumbers = new ArrayList<>();
+                    roomNumbers.add(room.getRoomNumber());
+                    booking.setSelectedRooms(roomNumbers);
+                }
+            } else {
+                List<String> mappedRooms = new ArrayList<>();
+                for (String selectedRoomId : booking.getSelectedRooms()) {
+                    Room mappedRoom = getRoom(selectedRoomId);
+                    mappedRooms.add(mappedRoom != null ? mappedRoom.getRoomNumber() : selectedRoomId);
+                }
+                booking.setSelectedRooms(mappedRooms);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.shipvoyage.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of rows returned by a ranged PostgREST request.
+ * totalCount comes from the Content-Range header and is -1 when unknown.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int limit;
+    private final long totalCount;
+
+    public Page(List<T> items, int offset, int limit, long totalCount) {
+        this.items = items != null ? items : new ArrayList<>();
+        this.offset = offset;
+        this.limit = limit;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Offset of the page that follows this one
+     */
+    public int getNextOffset() {
+        return offset + items.size();
+    }
+
+    public boolean hasMore() {
+        if (totalCount >= 0) {
+            return getNextOffset() < totalCount;
+        }
+        return items.size() >= limit;
+    }
+
+    /**
+     * Parse the total from a Content-Range header such as "0-24/3573"
+     */
+    public static long parseTotal(String contentRange) {
+        if (contentRange == null) return -1;
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || slash == contentRange.length() - 1) return -1;
+        String total = contentRange.substring(slash + 1).trim();
+        if ("*".equals(total)) return -1;
+        try {
+            return Long.parseLong(total);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
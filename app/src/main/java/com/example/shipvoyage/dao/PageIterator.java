@@ -0,0 +1,77 @@
+package com.example.shipvoyage.dao;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Walks a paged query one page at a time.
+ * Each call to next() hands back the page that was already prefetched
+ * and starts loading the following one in the background.
+ * A page that fails to load fails the future from next(); the iterator stays at
+ * that page, so calling next() again retries it.
+ */
+public class PageIterator<T> {
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private CompletableFuture<Page<T>> pending;
+    private int nextOffset;
+    private boolean exhausted;
+
+    public interface PageLoader<T> {
+        CompletableFuture<Page<T>> load(int offset, int limit);
+    }
+
+    public PageIterator(PageLoader<T> loader, int pageSize) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    public synchronized boolean hasNext() {
+        return !exhausted;
+    }
+
+    /**
+     * Get the next page. Must not be called again until the returned future completes.
+     */
+    public synchronized CompletableFuture<Page<T>> next() {
+        if (pending == null) {
+            pending = loader.load(nextOffset, pageSize);
+        }
+        CompletableFuture<Page<T>> current = pending;
+        pending = null;
+        CompletableFuture<Page<T>> result = current.thenApply(page -> {
+            synchronized (PageIterator.this) {
+                if (exhausted) {
+                    return page;
+                }
+                nextOffset = page.getNextOffset();
+                if (page.hasMore() && !page.getItems().isEmpty()) {
+                    pending = loader.load(nextOffset, pageSize);
+                } else {
+                    exhausted = true;
+                }
+            }
+            return page;
+        });
+        result.whenComplete((page, error) -> {
+            if (result.isCancelled()) {
+                current.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stop paging: the prefetched page is cancelled and hasNext() turns false
+     */
+    public void cancel() {
+        CompletableFuture<Page<T>> prefetched;
+        synchronized (this) {
+            exhausted = true;
+            prefetched = pending;
+            pending = null;
+        }
+        if (prefetched != null) {
+            prefetched.cancel(false);
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.shipvoyage.dao;
 
 import android.content.Context;
 
+import com.example.shipvoyage.model.Booking;
 import com.example.shipvoyage.model.Room;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -45,6 +49,31 @@ public class RoomDAO extends BaseSupabaseDAO {
         return query("ship_id=eq." + shipId, Room.class);
     }
 
+    /**
+     * Build the availability index for a tour instance in one request:
+     * the ship's bookable rooms with that instance's bookings embedded
+     * (rooms?select=*,bookings(...)&bookings.tour_instance_id=eq.X).
+     * Completes with null if the request failed; AvailabilityIndex.get() returns the
+     * index built here while it is recent, and our own booking changes keep it current.
+     */
+    public CompletableFuture<AvailabilityIndex> getAvailability(String shipId, String tourInstanceId) {
+        String filter = "ship_id=eq." + shipId + "&is_available=eq.true"
+                + "&bookings.tour_instance_id=eq." + tourInstanceId + "&order=name.asc";
+        return async(() -> {
+            List<Room> rooms = new ArrayList<>();
+            List<Booking> bookings = new ArrayList<>();
+            int count = fetchRows(tableUrl(filter, "*", "bookings(id,room_id,tour_instance_id,status)"), JsonObject.class, row -> {
+                rooms.add(gson.fromJson(row, Room.class));
+                if (row.has("bookings") && row.get("bookings").isJsonArray()) {
+                    for (JsonElement booking : row.getAsJsonArray("bookings")) {
+                        bookings.add(gson.fromJson(booking, Booking.class));
+                    }
+                }
+            });
+            return count >= 0 ? AvailabilityIndex.build(tourInstanceId, rooms, bookings) : null;
+        });
+    }
+
     /**
      * Get rooms by type
      */
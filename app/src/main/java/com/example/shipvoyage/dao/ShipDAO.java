@@ -38,6 +38,13 @@ public class ShipDAO extends BaseSupabaseDAO {
         return getAll(Ship.class);
     }
 
+    /**
+     * Count all ships without downloading them; -1 on error
+     */
+    public CompletableFuture<Long> countShips() {
+        return count(null);
+    }
+
     /**
      * Update ship (full object)
      */
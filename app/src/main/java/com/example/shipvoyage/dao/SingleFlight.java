@@ -0,0 +1,118 @@
+package com.example.shipvoyage.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical concurrent loads: while a load for a key is in flight,
+ * callers asking for the same key share it instead of starting their own.
+ * The key is forgotten as soon as the load completes, so nothing is cached.
+ * Each caller gets its own dependent future, so cancelling one does not cancel
+ * the shared load or the other callers; once every caller has cancelled, the load
+ * itself is cancelled, which skips it entirely if it has not started running yet.
+ */
+public class SingleFlight {
+    private final Map<String, Flight<?>> inFlight = new HashMap<>();
+    private long startedCount;
+    private long sharedCount;
+    private long abandonedCount;
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> load;
+        int waiters = 1;
+
+        Flight(CompletableFuture<V> load) {
+            this.load = load;
+        }
+    }
+
+    /**
+     * Join the load in flight for key, or start one with the loader
+     */
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> run(String key, Supplier<CompletableFuture<V>> loader) {
+        Flight<V> flight;
+        synchronized (this) {
+            flight = (Flight<V>) inFlight.get(key);
+            if (flight != null) {
+                sharedCount++;
+                flight.waiters++;
+                return view(key, flight);
+            }
+            startedCount++;
+            flight = new Flight<>(loader.get());
+            inFlight.put(key, flight);
+        }
+        // Registered after put so a load that already finished is removed right away
+        final Flight<V> started = flight;
+        started.load.whenComplete((value, error) -> {
+            synchronized (SingleFlight.this) {
+                inFlight.remove(key, started);
+            }
+        });
+        return view(key, started);
+    }
+
+    private <V> CompletableFuture<V> view(String key, Flight<V> flight) {
+        CompletableFuture<V> view = flight.load.thenApply(value -> value);
+        view.whenComplete((value, error) -> {
+            if (view.isCancelled()) {
+                abandon(key, flight);
+            }
+        });
+        return view;
+    }
+
+    private void abandon(String key, Flight<?> flight) {
+        synchronized (this) {
+            if (--flight.waiters > 0 || flight.load.isDone()) {
+                return;
+            }
+            inFlight.remove(key, flight);
+            abandonedCount++;
+        }
+        // Outside the lock: completion callbacks on the load may take other locks
+        flight.load.cancel(false);
+    }
+
+    /**
+     * Stop handing out the loads now in flight; callers already waiting still get them.
+     * Call after a write so later reads do not join one that started before it.
+     */
+    public synchronized void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Loads actually started
+     */
+    public synchronized long getStartedCount() {
+        return startedCount;
+    }
+
+    /**
+     * Requests that joined a load already in flight instead of issuing their own
+     */
+    public synchronized long getSharedCount() {
+        return sharedCount;
+    }
+
+    /**
+     * Loads cancelled because every caller waiting for them cancelled
+     */
+    public synchronized long getAbandonedCount() {
+        return abandonedCount;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "started=" + startedCount + ", shared=" + sharedCount
+                + ", abandoned=" + abandonedCount + ", inFlight=" + inFlight.size();
+    }
+}
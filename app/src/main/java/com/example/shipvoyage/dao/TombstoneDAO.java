@@ -0,0 +1,30 @@
+package com.example.shipvoyage.dao;
+
+import android.content.Context;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * TombstoneDAO - reads the deleted_rows log
+ * A trigger from database_delta_sync.sql records every deleted id so that
+ * delta sync can remove rows from the local mirror.
+ */
+public class TombstoneDAO extends BaseSupabaseDAO {
+    public TombstoneDAO(Context context) {
+        super(context, "deleted_rows");
+    }
+
+    /**
+     * Stream {row_id, deleted_at} for rows of the table deleted at or after the watermark,
+     * oldest first. A null watermark streams every tombstone for the table.
+     * Completes with the row count, or -1 on error.
+     */
+    public CompletableFuture<Integer> streamDeletedSince(String table, String watermark, RowCallback<JsonObject> callback) {
+        String filter = "table_name=eq." + table
+                + (watermark != null ? "&deleted_at=gte." + encodeValue(watermark) : "")
+                + "&order=deleted_at.asc";
+        return async(() -> fetchRows(tableUrl(filter, "row_id", "deleted_at"), JsonObject.class, callback));
+    }
+}
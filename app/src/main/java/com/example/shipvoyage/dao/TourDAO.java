@@ -38,6 +38,13 @@ public class TourDAO extends BaseSupabaseDAO {
         return getAll(Tour.class);
     }
 
+    /**
+     * Count all tours without downloading them; -1 on error
+     */
+    public CompletableFuture<Long> countTours() {
+        return count(null);
+    }
+
     /**
      * Update tour (full object)
      */
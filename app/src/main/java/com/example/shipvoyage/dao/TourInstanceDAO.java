@@ -38,6 +38,13 @@ public class TourInstanceDAO extends BaseSupabaseDAO {
         return getAll(TourInstance.class);
     }
 
+    /**
+     * Get only the id and dates of every tour instance
+     */
+    public CompletableFuture<List<TourInstance>> getAllTourInstanceDates() {
+        return getAll(TourInstance.class, "id", "start_date", "end_date");
+    }
+
     /**
      * Get tour instances by tour ID
      */
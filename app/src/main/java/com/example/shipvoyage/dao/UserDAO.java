@@ -3,6 +3,7 @@ package com.example.shipvoyage.dao;
 import android.content.Context;
 
 import com.example.shipvoyage.model.User;
+import com.google.gson.JsonObject;
 
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,11 @@ import java.util.concurrent.CompletableFuture;
  * CRUD operations for User table
  */
 public class UserDAO extends BaseSupabaseDAO {
+    /**
+     * Columns safe to list in admin screens (no password or profile data)
+     */
+    public static final String[] PUBLIC_COLUMNS = {"id", "username", "name", "email", "phone", "role"};
+
     public UserDAO(Context context) {
         super(context, "users");
     }
@@ -38,6 +44,20 @@ public class UserDAO extends BaseSupabaseDAO {
         return getAll(User.class);
     }
 
+    /**
+     * Count users with the given role (case-insensitive) without downloading them; -1 on error
+     */
+    public CompletableFuture<Long> countUsersByRole(String role) {
+        return count("role=ilike." + role);
+    }
+
+    /**
+     * Page through users with the given role as raw rows of PUBLIC_COLUMNS
+     */
+    public PageIterator<JsonObject> getUserRowPagesByRole(String role, int pageSize) {
+        return pages("role=ilike." + role, JsonObject.class, pageSize, PUBLIC_COLUMNS);
+    }
+
     /**
      * Get user by email
      */
@@ -0,0 +1,25 @@
+package com.example.shipvoyage.export;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single background thread shared by all exports and imports, so they run one at a
+ * time and never occupy the DAO I/O threads while writing files
+ */
+final class ExportExecutor {
+    private static ExecutorService executor;
+
+    private ExportExecutor() {}
+
+    static synchronized ExecutorService get() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "export");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.shipvoyage.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a TableImporter run: rows written and the rows that were rejected
+ */
+public class ImportResult {
+    private int imported;
+    private final List<Failure> failures = new ArrayList<>();
+
+    /**
+     * One rejected record and the line it starts on in the input
+     */
+    public static class Failure {
+        private final int line;
+        private final String message;
+
+        Failure(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void addFailure(int line, String message) {
+        failures.add(new Failure(line, message));
+    }
+
+    public int getImportedCount() {
+        return imported;
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    public List<Failure> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{imported=" + imported + ", failed=" + failures.size() + "}";
+    }
+}
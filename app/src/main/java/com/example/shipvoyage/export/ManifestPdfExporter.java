@@ -0,0 +1,286 @@
+package com.example.shipvoyage.export;
+
+import android.graphics.Paint;
+import android.graphics.pdf.PdfDocument;
+import android.util.Log;
+
+import com.example.shipvoyage.model.User;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the passenger manifest (ship layout) PDF off the main thread.
+ * Each A4 page is a grid of 8 rows x 2 cabins around a corridor; every customer gets
+ * a cell and as many pages are added as needed.
+ * Page contents are laid out in parallel by a pool of workers into PageLayouts, with
+ * text measured once per unique string; the export thread replays them onto the
+ * PdfDocument strictly in page order, keeping only a small window of pages ahead.
+ * Exports run one at a time on the shared export thread (ExportExecutor).
+ */
+public class ManifestPdfExporter {
+    private static final String TAG = "ManifestPdfExporter";
+
+    public static final int ROWS_PER_PAGE = 8;
+    public static final int CELLS_PER_PAGE = ROWS_PER_PAGE * 2;
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+    // Pages laid out ahead of the one being emitted, per worker
+    private static final int PAGES_AHEAD_PER_WORKER = 2;
+
+    // A4 in points
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int MARGIN = 20;
+    private static final int START_Y = 80;
+    private static final int ROW_HEIGHT = 80;
+    private static final int CORRIDOR_WIDTH = 60;
+    private static final int COLUMN_WIDTH = (PAGE_WIDTH - 2 * MARGIN - CORRIDOR_WIDTH) / 2;
+    private static final int LEFT_X = MARGIN;
+    private static final int RIGHT_X = MARGIN + COLUMN_WIDTH + CORRIDOR_WIDTH;
+    private static final int DETAILS_RIGHT = COLUMN_WIDTH - 4;
+
+    // Indexes into paints
+    private static final int TITLE = 0;
+    private static final int TEXT = 1;
+    private static final int HEADER = 2;
+    private static final int ROOM_NO = 3;
+    private static final int CORRIDOR = 4;
+    private static final int BORDER = 5;
+
+    private final String title;
+    private final String tourLabel;
+    private final List<User> customers;
+    private final Paint[] paints;
+    private int workers = DEFAULT_WORKERS;
+    private volatile boolean cancelled;
+
+    /**
+     * Reports pages rendered so far; called on the export thread
+     */
+    public interface ProgressListener {
+        void onProgress(int pagesDone, int totalPages);
+    }
+
+    /**
+     * @param shipName ship in the title, or null/empty for a generic title
+     * @param tourLabel tour instance shown under the title
+     * @param customers rows to print; the list is copied
+     */
+    public ManifestPdfExporter(String shipName, String tourLabel, List<User> customers) {
+        this.title = shipName != null && !shipName.isEmpty()
+                ? "LAYOUT OF " + shipName.toUpperCase(Locale.getDefault())
+                : "LAYOUT OF SHIP";
+        this.tourLabel = "TOUR: " + tourLabel;
+        this.customers = new ArrayList<>(customers);
+
+        this.paints = createPaints();
+    }
+
+    private static Paint[] createPaints() {
+        Paint[] paints = new Paint[6];
+        paints[TITLE] = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paints[TITLE].setTextSize(18);
+        paints[TITLE].setFakeBoldText(true);
+        paints[TEXT] = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paints[TEXT].setTextSize(10);
+        paints[HEADER] = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paints[HEADER].setTextSize(11);
+        paints[HEADER].setFakeBoldText(true);
+        paints[ROOM_NO] = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paints[ROOM_NO].setTextSize(16);
+        paints[ROOM_NO].setFakeBoldText(true);
+        paints[CORRIDOR] = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paints[CORRIDOR].setTextSize(14);
+        paints[CORRIDOR].setFakeBoldText(true);
+        paints[CORRIDOR].setColor(0xFFFF6B6B);
+        paints[BORDER] = new Paint();
+        paints[BORDER].setStyle(Paint.Style.STROKE);
+        paints[BORDER].setStrokeWidth(1.5f);
+        return paints;
+    }
+
+    /**
+     * Number of threads laying out pages; 1 lays out on the export thread itself
+     */
+    public ManifestPdfExporter setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Pages needed for the given number of customers; an empty manifest still gets one
+     */
+    public static int pageCount(int customerCount) {
+        return Math.max(1, (customerCount + CELLS_PER_PAGE - 1) / CELLS_PER_PAGE);
+    }
+
+    /**
+     * Render every page and write the document to file in the background.
+     * Completes with the file; on failure or cancel() the partial file is deleted
+     * and the future completes exceptionally.
+     */
+    public CompletableFuture<File> exportTo(File file, ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                writeTo(out, listener);
+                return file;
+            } catch (IOException | RuntimeException e) {
+                if (!file.delete() && file.exists()) {
+                    Log.w(TAG, "Could not delete partial export " + file);
+                }
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                Log.e(TAG, "Error writing PDF: " + e.getMessage(), e);
+                throw new IllegalStateException("Failed to write PDF", e);
+            }
+        }, ExportExecutor.get());
+    }
+
+    /**
+     * Render every page and write the document to out on the calling thread
+     */
+    public void writeTo(OutputStream out, ProgressListener listener) throws IOException {
+        int totalPages = pageCount(customers.size());
+        // Workers measure with their own copies, never the Paints used for drawing
+        TextMeasureCache measures = new TextMeasureCache(createPaints());
+        ExecutorService layoutPool = workers > 1 ? newLayoutPool(workers) : null;
+        int window = workers * PAGES_AHEAD_PER_WORKER;
+        ArrayDeque<CompletableFuture<PageLayout>> pending = new ArrayDeque<>();
+        PdfDocument document = new PdfDocument();
+        try {
+            int nextToLayout = 0;
+            for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
+                while (nextToLayout < totalPages && nextToLayout < pageIndex + window) {
+                    final int index = nextToLayout++;
+                    pending.add(layoutPool != null
+                            ? CompletableFuture.supplyAsync(() -> layoutPage(index, totalPages, measures), layoutPool)
+                            : CompletableFuture.completedFuture(layoutPage(index, totalPages, measures)));
+                }
+                PageLayout layout = await(pending.poll());
+                if (cancelled) {
+                    throw new CancellationException("PDF export cancelled");
+                }
+                PdfDocument.PageInfo info = new PdfDocument.PageInfo.Builder(PAGE_WIDTH, PAGE_HEIGHT, pageIndex + 1).create();
+                PdfDocument.Page page = document.startPage(info);
+                layout.drawTo(page.getCanvas(), paints);
+                document.finishPage(page);
+                if (listener != null) {
+                    listener.onProgress(pageIndex + 1, totalPages);
+                }
+            }
+            document.writeTo(out);
+        } finally {
+            for (CompletableFuture<PageLayout> future : pending) {
+                future.cancel(false);
+            }
+            if (layoutPool != null) {
+                layoutPool.shutdownNow();
+            }
+            document.close();
+        }
+    }
+
+    /**
+     * Stop after the page being emitted; the export future fails with CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private static ExecutorService newLayoutPool(int workers) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "pdf-layout-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static PageLayout await(CompletableFuture<PageLayout> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Record the drawing for one page; safe to call from any thread
+     */
+    PageLayout layoutPage(int pageIndex, int totalPages, TextMeasureCache measures) {
+        PageLayout layout = new PageLayout(pageIndex);
+        layout.text(measures.fit(TITLE, title, PAGE_WIDTH - 2 * MARGIN), MARGIN, 40, TITLE);
+        layout.text(measures.fit(TEXT, tourLabel, PAGE_WIDTH / 2f), MARGIN, 65, TEXT);
+        if (totalPages > 1) {
+            String pageLabel = "Page " + (pageIndex + 1) + " of " + totalPages;
+            layout.text(pageLabel, PAGE_WIDTH - MARGIN - measures.width(TEXT, pageLabel), 65, TEXT);
+        }
+
+        // Corridor between the two cabin columns
+        float corridorX = LEFT_X + COLUMN_WIDTH;
+        layout.rect(corridorX, START_Y, corridorX + CORRIDOR_WIDTH, START_Y + ROW_HEIGHT * ROWS_PER_PAGE, BORDER);
+
+        int first = pageIndex * CELLS_PER_PAGE;
+        for (int cell = 0; cell < CELLS_PER_PAGE; cell++) {
+            int row = cell / 2;
+            int colX = cell % 2 == 0 ? LEFT_X : RIGHT_X;
+            int y = START_Y + row * ROW_HEIGHT;
+            int index = first + cell;
+            layoutCell(layout, measures, index < customers.size() ? customers.get(index) : null, colX, y);
+        }
+
+        // Label the corridor across the middle rows
+        float centerX = corridorX + CORRIDOR_WIDTH / 2f;
+        float centerY = START_Y + ROW_HEIGHT * (ROWS_PER_PAGE / 2f);
+        String corridor = "C O R R I D O R";
+        layout.rotatedText(corridor, centerX - measures.width(CORRIDOR, corridor) / 2, centerY, centerX, centerY, CORRIDOR);
+        return layout;
+    }
+
+    private void layoutCell(PageLayout layout, TextMeasureCache measures, User customer, int colX, int y) {
+        layout.rect(colX, y, colX + COLUMN_WIDTH, y + ROW_HEIGHT, BORDER);
+        // Divider between the room number and the details
+        layout.line(colX + 40, y, colX + 40, y + ROW_HEIGHT, BORDER);
+        if (customer == null) {
+            return;
+        }
+
+        layout.text(measures.fit(ROOM_NO, orDefault(customer.getRoomNumber(), "N/A"), 34), colX + 4, y + 40, ROOM_NO);
+        layout.text(measures.fit(HEADER, orDefault(customer.getRoomType(), "Room Type"), DETAILS_RIGHT - 45), colX + 45, y + 12, HEADER);
+
+        layout.text("Name:", colX + 45, y + 25, TEXT);
+        layout.text(measures.fit(TEXT, orDefault(customer.getName(), "N/A"), DETAILS_RIGHT - 80), colX + 80, y + 25, TEXT);
+        layout.text("Mob:", colX + 45, y + 37, TEXT);
+        layout.text(measures.fit(TEXT, orDefault(customer.getPhone(), "N/A"), DETAILS_RIGHT - 75), colX + 75, y + 37, TEXT);
+        layout.text("Adult:", colX + 45, y + 49, TEXT);
+        layout.text(String.valueOf(customer.getAdultCount()), colX + 80, y + 49, TEXT);
+        layout.text("Child:", colX + 45, y + 61, TEXT);
+        layout.text(String.valueOf(customer.getChildCount()), colX + 80, y + 61, TEXT);
+        layout.text("Adv:", colX + 45, y + 73, TEXT);
+        layout.text(String.format(Locale.getDefault(), "৳%.2f", customer.getAdvanceAmount()), colX + 75, y + 73, TEXT);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.shipvoyage.export;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draw operations for one PDF page, recorded off the emitting thread and replayed
+ * onto the page's Canvas later. Paints are referred to by index so a layout can be
+ * built on any thread and drawn with the emitter's own Paint objects.
+ */
+final class PageLayout {
+    private static final int TEXT = 0;
+    private static final int RECT = 1;
+    private static final int LINE = 2;
+    private static final int ROTATED_TEXT = 3;
+
+    private final int pageIndex;
+    private final List<Op> ops = new ArrayList<>();
+
+    private static final class Op {
+        final int kind;
+        final int paint;
+        final float x1;
+        final float y1;
+        final float x2;
+        final float y2;
+        final String text;
+
+        Op(int kind, int paint, float x1, float y1, float x2, float y2, String text) {
+            this.kind = kind;
+            this.paint = paint;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+            this.text = text;
+        }
+    }
+
+    PageLayout(int pageIndex) {
+        this.pageIndex = pageIndex;
+    }
+
+    int getPageIndex() {
+        return pageIndex;
+    }
+
+    void text(String text, float x, float y, int paint) {
+        ops.add(new Op(TEXT, paint, x, y, 0, 0, text));
+    }
+
+    /**
+     * Text rotated by -90 degrees around (cx, cy), drawn at (x, y) in the rotated frame
+     */
+    void rotatedText(String text, float x, float y, float cx, float cy, int paint) {
+        ops.add(new Op(ROTATED_TEXT, paint, x, y, cx, cy, text));
+    }
+
+    void rect(float left, float top, float right, float bottom, int paint) {
+        ops.add(new Op(RECT, paint, left, top, right, bottom, null));
+    }
+
+    void line(float x1, float y1, float x2, float y2, int paint) {
+        ops.add(new Op(LINE, paint, x1, y1, x2, y2, null));
+    }
+
+    int size() {
+        return ops.size();
+    }
+
+    /**
+     * Replay the operations in recording order
+     */
+    void drawTo(Canvas canvas, Paint[] paints) {
+        for (Op op : ops) {
+            Paint paint = paints[op.paint];
+            switch (op.kind) {
+                case TEXT:
+                    canvas.drawText(op.text, op.x1, op.y1, paint);
+                    break;
+                case RECT:
+                    canvas.drawRect(op.x1, op.y1, op.x2, op.y2, paint);
+                    break;
+                case LINE:
+                    canvas.drawLine(op.x1, op.y1, op.x2, op.y2, paint);
+                    break;
+                case ROTATED_TEXT:
+                    canvas.save();
+                    canvas.rotate(-90, op.x2, op.y2);
+                    canvas.drawText(op.text, op.x1, op.y1, paint);
+                    canvas.restore();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.shipvoyage.export;
+
+import com.example.shipvoyage.dao.BookingDAO;
+import com.example.shipvoyage.dao.Page;
+import com.example.shipvoyage.dao.PageIterator;
+import com.example.shipvoyage.dao.UserDAO;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Streams a table from the server to CSV or NDJSON.
+ * Rows are fetched page by page (the next page loads while the current one is written)
+ * and written straight to the output stream, so only about two pages are ever in memory.
+ * CSV has a header row of column names; NDJSON has one JSON object per line.
+ */
+public class TableExporter {
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    public enum Format {
+        CSV("text/csv", ".csv"),
+        NDJSON("application/x-ndjson", ".ndjson");
+
+        private final String mimeType;
+        private final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Reports rows written so far and the total to export; called on the export thread
+     */
+    public interface ProgressListener {
+        void onProgress(int rowsWritten, long totalRows);
+    }
+
+    private final Supplier<PageIterator<JsonObject>> pages;
+    private final List<String> columns;
+    private volatile boolean cancelled;
+
+    /**
+     * @param pages starts a fresh paged query for each export
+     * @param columns columns to write, in order
+     */
+    public TableExporter(Supplier<PageIterator<JsonObject>> pages, String... columns) {
+        this.pages = pages;
+        this.columns = Arrays.asList(columns);
+    }
+
+    /**
+     * Bookings of one tour instance, or of all instances when tourInstanceId is null
+     */
+    public static TableExporter bookings(BookingDAO dao, String tourInstanceId) {
+        return new TableExporter(() -> dao.getBookingRowPages(tourInstanceId, DEFAULT_PAGE_SIZE),
+                BookingDAO.EXPORT_COLUMNS);
+    }
+
+    /**
+     * Passenger accounts, without passwords
+     */
+    public static TableExporter customers(UserDAO dao) {
+        return new TableExporter(() -> dao.getUserRowPagesByRole("passenger", DEFAULT_PAGE_SIZE),
+                UserDAO.PUBLIC_COLUMNS);
+    }
+
+    /**
+     * Export on the shared export thread. Completes with the number of rows written;
+     * the stream is flushed but not closed.
+     */
+    public CompletableFuture<Integer> exportTo(OutputStream out, Format format, ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeTo(out, format, listener);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ExportExecutor.get());
+    }
+
+    /**
+     * Export on the calling thread, which blocks while pages load.
+     * Fails with IOException if a page cannot be fetched, since a silently
+     * truncated export is worse than none.
+     */
+    public int writeTo(OutputStream out, Format format, ProgressListener listener) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            Csv.writeRow(writer, columns);
+        }
+        PageIterator<JsonObject> iterator = pages.get();
+        List<String> fields = new ArrayList<>(columns.size());
+        int written = 0;
+        while (iterator.hasNext()) {
+            if (cancelled) {
+                throw new CancellationException("Export cancelled");
+            }
+            Page<JsonObject> page;
+            try {
+                page = iterator.next().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Failed to fetch rows", e.getCause());
+            }
+            // Pages are requested with count=exact, so a total is always expected
+            if (page.getTotalCount() < 0) {
+                throw new IOException("Row count missing for offset " + page.getOffset());
+            }
+            for (JsonObject row : page.getItems()) {
+                if (format == Format.CSV) {
+                    fields.clear();
+                    for (String column : columns) {
+                        fields.add(text(row.get(column)));
+                    }
+                    Csv.writeRow(writer, fields);
+                } else {
+                    writer.write(row.toString());
+                    writer.write('\n');
+                }
+                written++;
+            }
+            if (listener != null) {
+                listener.onProgress(written, page.getTotalCount());
+            }
+        }
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * Stop before the next page; the export fails with CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private static String text(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return "";
+        }
+        return value.isJsonPrimitive() ? value.getAsString() : value.toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.shipvoyage.export;
+
+import com.example.shipvoyage.dao.BaseSupabaseDAO;
+import com.example.shipvoyage.dao.BatchResult;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Loads CSV or NDJSON files written by TableExporter (or by hand) into a table.
+ * Records are read one at a time and sent through the DAO's batch insert path in
+ * chunks; each chunk is committed before the next is read, so memory stays at one
+ * chunk and an interrupted import keeps what it already wrote.
+ * CSV needs a header row of column names; empty fields are left out of the row so
+ * the column gets its default. Rows the server rejects are reported with their line.
+ */
+public class TableImporter {
+    public static final int DEFAULT_CHUNK_SIZE = BaseSupabaseDAO.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Reports records read, written and rejected so far; called after each chunk
+     * on the import thread
+     */
+    public interface ProgressListener {
+        void onProgress(int rowsRead, int rowsImported, int rowsFailed);
+    }
+
+    private final BaseSupabaseDAO dao;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean upsert;
+    private volatile boolean cancelled;
+
+    public TableImporter(BaseSupabaseDAO dao) {
+        this.dao = dao;
+    }
+
+    public TableImporter setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Update rows whose id already exists instead of rejecting them,
+     * e.g. to re-import an edited export
+     */
+    public TableImporter setUpsert(boolean upsert) {
+        this.upsert = upsert;
+        return this;
+    }
+
+    /**
+     * Import on the shared export thread; the stream is not closed
+     */
+    public CompletableFuture<ImportResult> importFrom(InputStream in, TableExporter.Format format, ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readFrom(in, format, listener);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ExportExecutor.get());
+    }
+
+    /**
+     * Import on the calling thread, which blocks while chunks are written.
+     * Bad records are reported in the result; an unterminated quoted CSV field
+     * fails with IOException, and chunks before it stay committed.
+     */
+    public ImportResult readFrom(InputStream in, TableExporter.Format format, ProgressListener listener) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Chunk chunk = new Chunk(listener);
+        if (format == TableExporter.Format.CSV) {
+            readCsv(reader, chunk);
+        } else {
+            readNdjson(reader, chunk);
+        }
+        chunk.flush();
+        return chunk.result;
+    }
+
+    /**
+     * Stop before the next chunk; the import fails with CancellationException
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void readCsv(BufferedReader reader, Chunk chunk) throws IOException {
+        Csv.RowReader rows = new Csv.RowReader(reader);
+        List<String> header = rows.next();
+        if (header == null) {
+            return;
+        }
+        // Spreadsheet apps often save UTF-8 with a byte order mark
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        while (true) {
+            int line = rows.getLine();
+            List<String> fields = rows.next();
+            if (fields == null) {
+                return;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if (fields.size() != header.size()) {
+                chunk.reject(line, "Expected " + header.size() + " fields but found " + fields.size());
+                continue;
+            }
+            JsonObject row = new JsonObject();
+            for (int i = 0; i < header.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    row.addProperty(header.get(i), fields.get(i));
+                }
+            }
+            chunk.add(line, row);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Chunk chunk) throws IOException {
+        int line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                JsonElement json = JsonParser.parseString(text);
+                if (json.isJsonObject()) {
+                    chunk.add(line, json.getAsJsonObject());
+                } else {
+                    chunk.reject(line, "Not a JSON object");
+                }
+            } catch (JsonParseException e) {
+                chunk.reject(line, "Invalid JSON: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rows waiting to be written, with the input line each one came from
+     */
+    private final class Chunk {
+        final ImportResult result = new ImportResult();
+        final ProgressListener listener;
+        final List<JsonObject> rows = new ArrayList<>();
+        final List<Integer> lines = new ArrayList<>();
+        int read;
+
+        Chunk(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        void add(int line, JsonObject row) {
+            read++;
+            rows.add(row);
+            lines.add(line);
+            if (rows.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int line, String message) {
+            read++;
+            result.addFailure(line, message);
+        }
+
+        void flush() {
+            if (cancelled) {
+                throw new CancellationException("Import cancelled");
+            }
+            if (!rows.isEmpty()) {
+                BatchResult written = (upsert ? dao.upsertAll(rows) : dao.insertAll(rows)).join();
+                result.addImported(written.getSucceededCount());
+                for (BatchResult.Failure failure : written.getFailures()) {
+                    String message = failure.getCode() > 0
+                            ? "HTTP " + failure.getCode() + ": " + failure.getMessage()
+                            : failure.getMessage();
+                    result.addFailure(lines.get(failure.getIndex()), message);
+                }
+                rows.clear();
+                lines.clear();
+            }
+            if (listener != null) {
+                listener.onProgress(read, result.getImportedCount(), result.getFailedCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.shipvoyage.export;
+
+import android.graphics.Paint;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Text widths for a set of paints, shared by all layout workers. Repeated strings
+ * such as labels and room types hit the cache; each worker thread measures misses
+ * with its own copies of the paints. Each paint keeps only the most recently used
+ * widths, so one-off strings like names and phone numbers cannot grow it without bound.
+ */
+final class TextMeasureCache {
+    private static final String ELLIPSIS = "…";
+    static final int MAX_ENTRIES_PER_PAINT = 256;
+
+    private final Paint[] paints;
+    private final Map<String, Float>[] widths;
+    private final ThreadLocal<Paint[]> workerPaints;
+
+    @SuppressWarnings("unchecked")
+    TextMeasureCache(Paint[] paints) {
+        this.paints = paints;
+        this.widths = new Map[paints.length];
+        for (int i = 0; i < paints.length; i++) {
+            widths[i] = Collections.synchronizedMap(new LinkedHashMap<String, Float>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Float> eldest) {
+                    return size() > MAX_ENTRIES_PER_PAINT;
+                }
+            });
+        }
+        this.workerPaints = ThreadLocal.withInitial(this::copyPaints);
+    }
+
+    private synchronized Paint[] copyPaints() {
+        Paint[] copies = new Paint[paints.length];
+        for (int i = 0; i < paints.length; i++) {
+            copies[i] = new Paint(paints[i]);
+        }
+        return copies;
+    }
+
+    float width(int paint, String text) {
+        Float width = widths[paint].get(text);
+        if (width == null) {
+            width = workerPaints.get()[paint].measureText(text);
+            widths[paint].put(text, width);
+        }
+        return width;
+    }
+
+    /**
+     * The text, or its longest prefix plus an ellipsis that fits in maxWidth
+     */
+    String fit(int paint, String text, float maxWidth) {
+        if (width(paint, text) <= maxWidth) {
+            return text;
+        }
+        float room = maxWidth - width(paint, ELLIPSIS);
+        int count = room > 0 ? workerPaints.get()[paint].breakText(text, true, room, null) : 0;
+        return text.substring(0, count) + ELLIPSIS;
+    }
+
+    /**
+     * Widths currently cached, over all paints
+     */
+    int size() {
+        int size = 0;
+        for (Map<String, Float> map : widths) {
+            size += map.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.shipvoyage.model;
+import com.google.gson.annotations.SerializedName;
+
+public class DashboardStats {
+    @SerializedName("ship_count")
+    public long shipCount;
+
+    @SerializedName("tour_count")
+    public long tourCount;
+
+    @SerializedName("tour_instance_count")
+    public long tourInstanceCount;
+
+    @SerializedName("upcoming_tour_count")
+    public long upcomingTourCount;
+
+    @SerializedName("current_tour_count")
+    public long currentTourCount;
+
+    @SerializedName("booking_count")
+    public long bookingCount;
+
+    @SerializedName("customer_count")
+    public long customerCount;
+
+    public DashboardStats() {}
+
+    public long getShipCount() { return shipCount; }
+    public void setShipCount(long shipCount) { this.shipCount = shipCount; }
+
+    public long getTourCount() { return tourCount; }
+    public void setTourCount(long tourCount) { this.tourCount = tourCount; }
+
+    public long getTourInstanceCount() { return tourInstanceCount; }
+    public void setTourInstanceCount(long tourInstanceCount) { this.tourInstanceCount = tourInstanceCount; }
+
+    public long getUpcomingTourCount() { return upcomingTourCount; }
+    public void setUpcomingTourCount(long upcomingTourCount) { this.upcomingTourCount = upcomingTourCount; }
+
+    public long getCurrentTourCount() { return currentTourCount; }
+    public void setCurrentTourCount(long currentTourCount) { this.currentTourCount = currentTourCount; }
+
+    public long getBookingCount() { return bookingCount; }
+    public void setBookingCount(long bookingCount) { this.bookingCount = bookingCount; }
+
+    public long getCustomerCount() { return customerCount; }
+    public void setCustomerCount(long customerCount) { this.customerCount = customerCount; }
+}
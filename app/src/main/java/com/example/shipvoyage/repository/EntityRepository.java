@@ -0,0 +1,319 @@
+package com.example.shipvoyage.repository;
+
+import android.util.Log;
+
+import com.example.shipvoyage.dao.BaseSupabaseDAO;
+import com.example.shipvoyage.dao.BatchResult;
+import com.example.shipvoyage.util.ThreadPool;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline-first access to one table.
+ * Reads are served from the LocalStore mirror and refreshed from Supabase in the
+ * background; the DAO is the remote half. Writes go to the server first and are
+ * written through to the mirror once they succeed.
+ * With a SyncEngine, refreshes only transfer rows changed since the last one; a table
+ * without the updated_at column falls back to full downloads from then on.
+ * This is the one place that decides when table data is stale. DAO reads always go
+ * to the server (the HTTP cache only revalidates them), the admin ViewModel's
+ * datasets hold what a screen shows for the same refresh interval, and
+ * AvailabilityIndex keeps room occupancy for its own short max age.
+ */
+public class EntityRepository<T> {
+    private static final String TAG = "EntityRepository";
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final BaseSupabaseDAO remote;
+    private final LocalStore local;
+    private final Gson gson;
+    private final Class<T> clazz;
+    private final String table;
+    private final String[] columns;
+    private volatile long refreshIntervalMs = DEFAULT_REFRESH_INTERVAL_MS;
+    private volatile long lastRefreshAt;
+    private volatile SyncEngine syncEngine;
+    private CompletableFuture<List<T>> refreshInFlight;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    /**
+     * @param columns columns to mirror; empty for all of them
+     */
+    public EntityRepository(BaseSupabaseDAO remote, LocalStore local, Gson gson, Class<T> clazz, String... columns) {
+        this.remote = remote;
+        this.local = local;
+        this.gson = gson;
+        this.clazz = clazz;
+        this.table = remote.getTableName();
+        this.columns = columns;
+    }
+
+    /**
+     * Refresh through delta sync instead of re-downloading the table
+     */
+    public void setSyncEngine(SyncEngine syncEngine) {
+        this.syncEngine = syncEngine;
+    }
+
+    /**
+     * How long mirrored rows are served before a read refreshes them in the background
+     */
+    public void setRefreshInterval(long duration, TimeUnit unit) {
+        refreshIntervalMs = unit.toMillis(duration);
+    }
+
+    public long getRefreshIntervalMs() {
+        return refreshIntervalMs;
+    }
+
+    /**
+     * Get all rows from the mirror, refreshing it in the background when stale.
+     * Waits for the server only while the mirror is still empty.
+     */
+    public CompletableFuture<List<T>> getAll() {
+        return ThreadPool.supplyAsync(this::readLocal).thenCompose(rows -> {
+            if (rows.isEmpty()) {
+                missCount.incrementAndGet();
+                return refresh();
+            }
+            hitCount.incrementAndGet();
+            if (System.currentTimeMillis() - lastRefreshAt >= refreshIntervalMs) {
+                refresh();
+            }
+            return CompletableFuture.completedFuture(rows);
+        });
+    }
+
+    /**
+     * Get one row from the mirror, falling back to a refresh if it is missing
+     */
+    public CompletableFuture<T> getById(String id) {
+        return ThreadPool.supplyAsync(() -> decode(local.read(table, id))).thenCompose(row -> {
+            if (row != null) {
+                hitCount.incrementAndGet();
+                return CompletableFuture.completedFuture(row);
+            }
+            missCount.incrementAndGet();
+            return refresh().thenApply(rows -> decode(local.read(table, id)));
+        });
+    }
+
+    /**
+     * Bring the mirror up to date and return its rows.
+     * Concurrent calls share one refresh. If the server cannot be reached
+     * the mirror is kept and its rows are returned instead.
+     */
+    public synchronized CompletableFuture<List<T>> refresh() {
+        if (refreshInFlight != null) {
+            return refreshInFlight;
+        }
+        refreshCount.incrementAndGet();
+        SyncEngine engine = syncEngine;
+        CompletableFuture<List<T>> fetched;
+        if (engine != null) {
+            fetched = engine.sync().thenCompose(count -> {
+                if (count >= 0) {
+                    return CompletableFuture.completedFuture(readLocal());
+                }
+                if (count == BaseSupabaseDAO.MISSING_COLUMN) {
+                    // database_delta_sync.sql has not been run for this table
+                    Log.w(TAG, "No updated_at column on " + table + ", using full refresh");
+                    syncEngine = null;
+                    return download();
+                }
+                // Keep delta sync; the next refresh tries again
+                return CompletableFuture.completedFuture(null);
+            });
+        } else {
+            fetched = download();
+        }
+        CompletableFuture<List<T>> future = fetched.thenApply(rows -> {
+            if (rows == null) {
+                Log.w(TAG, "Refresh of " + table + " failed, serving local copy");
+                return readLocal();
+            }
+            lastRefreshAt = System.currentTimeMillis();
+            return rows;
+        });
+        refreshInFlight = future;
+        future.whenComplete((result, error) -> {
+            synchronized (EntityRepository.this) {
+                if (refreshInFlight == future) {
+                    refreshInFlight = null;
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Re-download the whole table into the mirror; null if the server could not be reached
+     */
+    private CompletableFuture<List<T>> download() {
+        List<T> rows = new ArrayList<>();
+        return remote.streamAll(clazz, rows::add, columns).thenApply(count -> {
+            if (count < 0) {
+                return null;
+            }
+            Map<String, String> mirrored = new LinkedHashMap<>();
+            for (T row : rows) {
+                JsonObject json = toJson(row);
+                String id = idOf(json);
+                if (id != null) {
+                    mirrored.put(id, json.toString());
+                }
+            }
+            local.replaceAll(table, mirrored);
+            return rows;
+        });
+    }
+
+    /**
+     * Insert on the server, then into the mirror
+     */
+    public CompletableFuture<Boolean> insert(T row) {
+        return remote.insert(row).thenApply(success -> {
+            if (success) {
+                JsonObject json = toJson(row);
+                String id = idOf(json);
+                if (id != null) {
+                    local.put(table, id, json.toString());
+                }
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Insert many rows on the server in batched requests, then put the accepted
+     * ones into the mirror in one transaction
+     */
+    public CompletableFuture<BatchResult> insertAll(List<T> rows) {
+        return remote.insertAll(rows).thenApply(result -> {
+            Set<Integer> rejected = new HashSet<>();
+            for (BatchResult.Failure failure : result.getFailures()) {
+                rejected.add(failure.getIndex());
+            }
+            Map<String, String> mirrored = new LinkedHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (rejected.contains(i)) {
+                    continue;
+                }
+                JsonObject json = toJson(rows.get(i));
+                String id = idOf(json);
+                if (id != null) {
+                    mirrored.put(id, json.toString());
+                }
+            }
+            local.putAll(table, mirrored);
+            return result;
+        });
+    }
+
+    /**
+     * Update on the server, then merge the changed fields into the mirrored row.
+     * data may be a full model or a map of columns.
+     */
+    public CompletableFuture<Boolean> update(String id, Object data) {
+        return remote.updateById(id, data).thenApply(success -> {
+            if (success) {
+                String existing = local.read(table, id);
+                JsonObject merged = existing != null
+                        ? gson.fromJson(existing, JsonObject.class)
+                        : new JsonObject();
+                for (Map.Entry<String, JsonElement> field : toJson(data).entrySet()) {
+                    merged.add(field.getKey(), field.getValue());
+                }
+                merged.addProperty("id", id);
+                local.put(table, id, merged.toString());
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Delete on the server, then from the mirror
+     */
+    public CompletableFuture<Boolean> delete(String id) {
+        return remote.deleteById(id).thenApply(success -> {
+            if (success) {
+                local.delete(table, id);
+            }
+            return success;
+        });
+    }
+
+    /**
+     * Reads answered from the mirror without waiting for the server
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Reads that had to wait for a refresh because the mirror lacked the rows
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Refreshes started; callers that joined one already running are not counted
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return table + ": hits=" + hitCount.get() + ", misses=" + missCount.get()
+                + ", refreshes=" + refreshCount.get() + ", interval=" + refreshIntervalMs + "ms";
+    }
+
+    private List<T> readLocal() {
+        List<T> rows = new ArrayList<>();
+        try {
+            for (String json : local.readAll(table)) {
+                rows.add(gson.fromJson(json, clazz));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading local " + table + ": " + e.getMessage(), e);
+        }
+        return rows;
+    }
+
+    private T decode(String json) {
+        return json != null ? gson.fromJson(json, clazz) : null;
+    }
+
+    /**
+     * Serialize to JSON, keeping only the mirrored columns
+     */
+    private JsonObject toJson(Object data) {
+        JsonObject json = gson.toJsonTree(data).getAsJsonObject();
+        if (columns.length > 0) {
+            List<String> keep = Arrays.asList(columns);
+            json.keySet().removeIf(key -> !keep.contains(key));
+        }
+        return json;
+    }
+
+    private static String idOf(JsonObject json) {
+        JsonElement id = json.get("id");
+        return id != null && !id.isJsonNull() ? id.getAsString() : null;
+    }
+}
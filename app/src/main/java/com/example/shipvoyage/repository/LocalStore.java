@@ -0,0 +1,225 @@
+package com.example.shipvoyage.repository;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LocalStore - on-device SQLite mirror of the Supabase tables
+ * Each row is stored as its JSON representation keyed by id, so the mirror
+ * needs no migration when a model gains a column. It is only a cache:
+ * upgrades drop it and the next refresh fills it again.
+ * sync_state holds the delta sync watermarks for each table.
+ */
+public class LocalStore extends SQLiteOpenHelper {
+    private static final String DB_NAME = "shipvoyage_mirror.db";
+    private static final int DB_VERSION = 2;
+    private static final String SYNC_STATE = "sync_state";
+    private static final String TOMBSTONE_SUFFIX = ":deleted";
+
+    public static final List<String> TABLES = Arrays.asList(
+            "ships", "rooms", "room_types", "tours", "tour_instances", "bookings", "users");
+
+    private static LocalStore instance;
+
+    LocalStore(Context context) {
+        super(context, DB_NAME, null, DB_VERSION);
+    }
+
+    public static synchronized LocalStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new LocalStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        for (String table : TABLES) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS " + table
+                    + " (id TEXT PRIMARY KEY, json TEXT NOT NULL)");
+        }
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + SYNC_STATE
+                + " (key TEXT PRIMARY KEY, value TEXT NOT NULL)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        for (String table : TABLES) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        db.execSQL("DROP TABLE IF EXISTS " + SYNC_STATE);
+        onCreate(db);
+    }
+
+    /**
+     * Table names are concatenated into SQL, so only mirrored tables are accepted
+     */
+    private static String checkTable(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Table is not mirrored: " + table);
+        }
+        return table;
+    }
+
+    /**
+     * JSON of every row in the table
+     */
+    public List<String> readAll(String table) {
+        List<String> rows = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT json FROM " + checkTable(table), null)) {
+            while (cursor.moveToNext()) {
+                rows.add(cursor.getString(0));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * JSON of one row, or null if it is not mirrored
+     */
+    public String read(String table, String id) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT json FROM " + checkTable(table) + " WHERE id = ?", new String[]{id})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Insert or replace one row
+     */
+    public void put(String table, String id, String json) {
+        ContentValues values = new ContentValues();
+        values.put("id", id);
+        values.put("json", json);
+        getWritableDatabase().insertWithOnConflict(checkTable(table), null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Insert or replace many rows in one transaction
+     */
+    public void putAll(String table, Map<String, String> rows) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement upsert = db.compileStatement(
+                    "INSERT OR REPLACE INTO " + checkTable(table) + " (id, json) VALUES (?, ?)");
+            for (Map.Entry<String, String> row : rows.entrySet()) {
+                upsert.bindString(1, row.getKey());
+                upsert.bindString(2, row.getValue());
+                upsert.executeInsert();
+            }
+            upsert.close();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void delete(String table, String id) {
+        getWritableDatabase().delete(checkTable(table), "id = ?", new String[]{id});
+    }
+
+    /**
+     * Replace the whole table with the given id to JSON rows in one transaction.
+     * Clears the table's sync watermarks, as they no longer describe the mirror.
+     */
+    public void replaceAll(String table, Map<String, String> rows) {
+        replaceAll(table, rows, null);
+    }
+
+    /**
+     * Replace the whole table and set both sync watermarks to the given value (null clears them)
+     */
+    public void replaceAll(String table, Map<String, String> rows, String watermark) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(checkTable(table), null, null);
+            SQLiteStatement insert = db.compileStatement(
+                    "INSERT OR REPLACE INTO " + table + " (id, json) VALUES (?, ?)");
+            for (Map.Entry<String, String> row : rows.entrySet()) {
+                insert.bindString(1, row.getKey());
+                insert.bindString(2, row.getValue());
+                insert.executeInsert();
+            }
+            insert.close();
+            setSyncState(db, table, watermark);
+            setSyncState(db, table + TOMBSTONE_SUFFIX, watermark);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Apply one delta sync in a single transaction: deletions first, then
+     * changed rows, then the new watermarks
+     */
+    public void applyChanges(String table, Map<String, String> changed, Collection<String> deletedIds,
+                             String watermark, String tombstoneWatermark) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : deletedIds) {
+                db.delete(checkTable(table), "id = ?", new String[]{id});
+            }
+            SQLiteStatement upsert = db.compileStatement(
+                    "INSERT OR REPLACE INTO " + checkTable(table) + " (id, json) VALUES (?, ?)");
+            for (Map.Entry<String, String> row : changed.entrySet()) {
+                upsert.bindString(1, row.getKey());
+                upsert.bindString(2, row.getValue());
+                upsert.executeInsert();
+            }
+            upsert.close();
+            setSyncState(db, table, watermark);
+            setSyncState(db, table + TOMBSTONE_SUFFIX, tombstoneWatermark);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Highest updated_at seen for the table, or null before the first delta sync
+     */
+    public String getWatermark(String table) {
+        return getSyncState(table);
+    }
+
+    /**
+     * Highest deleted_at seen in the table's tombstones
+     */
+    public String getTombstoneWatermark(String table) {
+        return getSyncState(table + TOMBSTONE_SUFFIX);
+    }
+
+    private String getSyncState(String key) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT value FROM " + SYNC_STATE + " WHERE key = ?", new String[]{key})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private static void setSyncState(SQLiteDatabase db, String key, String value) {
+        if (value == null) {
+            db.delete(SYNC_STATE, "key = ?", new String[]{key});
+            return;
+        }
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        db.insertWithOnConflict(SYNC_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.shipvoyage.repository;
+
+import android.content.Context;
+
+import com.example.shipvoyage.dao.BaseSupabaseDAO;
+import com.example.shipvoyage.dao.BookingDAO;
+import com.example.shipvoyage.dao.RoomDAO;
+import com.example.shipvoyage.dao.RoomTypeDAO;
+import com.example.shipvoyage.dao.ShipDAO;
+import com.example.shipvoyage.dao.TourDAO;
+import com.example.shipvoyage.dao.TombstoneDAO;
+import com.example.shipvoyage.dao.TourInstanceDAO;
+import com.example.shipvoyage.dao.UserDAO;
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+import com.example.shipvoyage.model.RoomType;
+import com.example.shipvoyage.model.Ship;
+import com.example.shipvoyage.model.Tour;
+import com.example.shipvoyage.model.TourInstance;
+import com.example.shipvoyage.model.User;
+import com.example.shipvoyage.util.SupabaseClient;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide repositories, one per mirrored table.
+ * Each table gets a refresh interval to match how often it changes. This client's
+ * own writes go through to the mirror at once, so the interval only bounds how late
+ * other devices' changes show up.
+ */
+public final class Repositories {
+    /**
+     * Ships, tours and room types, which only admins edit
+     */
+    public static final long REFERENCE_REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    /**
+     * Rooms, whose availability flag admins toggle
+     */
+    public static final long ROOM_REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final List<String> REFERENCE_TABLES = Arrays.asList("ships", "tours", "room_types");
+
+    private static EntityRepository<Ship> ships;
+    private static EntityRepository<Room> rooms;
+    private static EntityRepository<RoomType> roomTypes;
+    private static EntityRepository<Tour> tours;
+    private static EntityRepository<TourInstance> tourInstances;
+    private static EntityRepository<Booking> bookings;
+    private static EntityRepository<User> users;
+
+    private Repositories() {
+    }
+
+    /**
+     * Repositories refresh through delta sync; see database_delta_sync.sql
+     */
+    private static <T> EntityRepository<T> create(Context context, BaseSupabaseDAO dao, Class<T> clazz, String... columns) {
+        LocalStore local = LocalStore.getInstance(context);
+        EntityRepository<T> repository = new EntityRepository<>(dao, local,
+                SupabaseClient.getInstance(context).getGson(), clazz, columns);
+        repository.setSyncEngine(new SyncEngine(dao, new TombstoneDAO(context), local, columns));
+        repository.setRefreshInterval(refreshIntervalMs(dao.getTableName()), TimeUnit.MILLISECONDS);
+        return repository;
+    }
+
+    /**
+     * Refresh interval for a mirrored table; bookings, users and tour instances
+     * change often and keep EntityRepository's default
+     */
+    static long refreshIntervalMs(String table) {
+        if (REFERENCE_TABLES.contains(table)) {
+            return REFERENCE_REFRESH_INTERVAL_MS;
+        }
+        if ("rooms".equals(table)) {
+            return ROOM_REFRESH_INTERVAL_MS;
+        }
+        return EntityRepository.DEFAULT_REFRESH_INTERVAL_MS;
+    }
+
+    public static synchronized EntityRepository<Ship> ships(Context context) {
+        if (ships == null) {
+            ships = create(context, new ShipDAO(context), Ship.class);
+        }
+        return ships;
+    }
+
+    public static synchronized EntityRepository<Room> rooms(Context context) {
+        if (rooms == null) {
+            rooms = create(context, new RoomDAO(context), Room.class);
+        }
+        return rooms;
+    }
+
+    public static synchronized EntityRepository<RoomType> roomTypes(Context context) {
+        if (roomTypes == null) {
+            roomTypes = create(context, new RoomTypeDAO(context), RoomType.class);
+        }
+        return roomTypes;
+    }
+
+    public static synchronized EntityRepository<Tour> tours(Context context) {
+        if (tours == null) {
+            tours = create(context, new TourDAO(context), Tour.class);
+        }
+        return tours;
+    }
+
+    public static synchronized EntityRepository<TourInstance> tourInstances(Context context) {
+        if (tourInstances == null) {
+            tourInstances = create(context, new TourInstanceDAO(context), TourInstance.class);
+        }
+        return tourInstances;
+    }
+
+    public static synchronized EntityRepository<Booking> bookings(Context context) {
+        if (bookings == null) {
+            bookings = create(context, new BookingDAO(context), Booking.class);
+        }
+        return bookings;
+    }
+
+    /**
+     * Users are mirrored without their password column
+     */
+    public static synchronized EntityRepository<User> users(Context context) {
+        if (users == null) {
+            users = create(context, new UserDAO(context), User.class, UserDAO.PUBLIC_COLUMNS);
+        }
+        return users;
+    }
+}
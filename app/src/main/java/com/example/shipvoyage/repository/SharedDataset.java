@@ -0,0 +1,104 @@
+package com.example.shipvoyage.repository;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * One loaded value shared by every screen that shows it, e.g. held by an activity-scoped
+ * ViewModel. Observers get the last loaded value straight away; refreshIfStale() only
+ * loads again once the value is older than the max age, and concurrent refreshes share
+ * one load. A failed load keeps the previous value.
+ */
+public class SharedDataset<T> {
+    private static final String TAG = "SharedDataset";
+
+    private final Supplier<CompletableFuture<T>> loader;
+    private final MutableLiveData<T> data = new MutableLiveData<>();
+    private final long maxAgeMs;
+    private T value;
+    private long loadedAt;
+    private int version;
+    private CompletableFuture<T> inFlight;
+
+    public SharedDataset(Supplier<CompletableFuture<T>> loader, long maxAgeMs) {
+        this.loader = loader;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Latest loaded value, delivered on the main thread
+     */
+    public LiveData<T> getData() {
+        return data;
+    }
+
+    /**
+     * Last loaded value, or null before the first load
+     */
+    public synchronized T getValue() {
+        return value;
+    }
+
+    public synchronized boolean isStale() {
+        return loadedAt == 0 || System.currentTimeMillis() - loadedAt >= maxAgeMs;
+    }
+
+    /**
+     * The current value if it is fresh, otherwise the result of a new (or running) load
+     */
+    public synchronized CompletableFuture<T> refreshIfStale() {
+        if (inFlight == null && !isStale()) {
+            return CompletableFuture.completedFuture(value);
+        }
+        return refresh();
+    }
+
+    /**
+     * Load now unless a load is already running
+     */
+    public synchronized CompletableFuture<T> refresh() {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        final int loadVersion = version;
+        CompletableFuture<T> future = loader.get();
+        inFlight = future;
+        future.whenComplete((result, error) -> {
+            synchronized (SharedDataset.this) {
+                if (inFlight == future) {
+                    inFlight = null;
+                }
+                if (error != null || result == null) {
+                    Log.w(TAG, "Load failed, keeping previous value"
+                            + (error != null ? ": " + error.getMessage() : ""));
+                    return;
+                }
+                // A load that started before invalidate() may predate the change:
+                // keep its rows unless a newer load is running, but do not call them fresh
+                if (loadVersion != version && inFlight != null) {
+                    return;
+                }
+                value = result;
+                if (loadVersion == version) {
+                    loadedAt = System.currentTimeMillis();
+                }
+                data.postValue(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Mark the value stale, e.g. after a write; the next refreshIfStale() loads again
+     */
+    public synchronized void invalidate() {
+        loadedAt = 0;
+        version++;
+        inFlight = null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.shipvoyage.repository;
+
+import android.util.Log;
+
+import com.example.shipvoyage.dao.BaseSupabaseDAO;
+import com.example.shipvoyage.dao.TombstoneDAO;
+import com.example.shipvoyage.util.ThreadPool;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental sync of one mirrored table using updated_at watermarks.
+ * The first sync downloads the whole table; later ones fetch only rows changed
+ * since the last seen updated_at plus tombstones of deleted rows, and merge them
+ * into the LocalStore in one transaction.
+ * A row is stamped when it is written but only visible once its transaction commits,
+ * so it can turn up with an updated_at below a watermark taken in between. Each delta
+ * therefore re-reads an overlap window below the watermarks; rows seen again are
+ * merged by id, so the re-read only costs their transfer.
+ */
+public class SyncEngine {
+    private static final String TAG = "SyncEngine";
+    // Longer than any write transaction is expected to stay open
+    static final long OVERLAP_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final String TIMESTAMP_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    // Characters of TIMESTAMP_FORMAT in a watermark, e.g. 2026-10-18T09:30:00
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private final BaseSupabaseDAO remote;
+    private final TombstoneDAO tombstones;
+    private final LocalStore local;
+    private final String table;
+    private final String[] columns;
+
+    public SyncEngine(BaseSupabaseDAO remote, TombstoneDAO tombstones, LocalStore local, String... columns) {
+        this.remote = remote;
+        this.tombstones = tombstones;
+        this.local = local;
+        this.table = remote.getTableName();
+        this.columns = columns;
+    }
+
+    /**
+     * Bring the mirror up to date.
+     * Completes with the number of changed plus deleted rows (including those re-read
+     * in the overlap window), BaseSupabaseDAO.MISSING_COLUMN if the table has no
+     * updated_at column, or -1 if the sync failed for any other reason.
+     */
+    public CompletableFuture<Integer> sync() {
+        return ThreadPool.supplyAsync(() -> new String[]{
+                local.getWatermark(table), local.getTombstoneWatermark(table)
+        }).thenCompose(marks -> marks[0] == null ? fullSync() : deltaSync(marks[0], marks[1]));
+    }
+
+    private CompletableFuture<Integer> fullSync() {
+        Map<String, String> rows = new LinkedHashMap<>();
+        String[] watermark = new String[1];
+        return remote.streamChangedSince(null, row -> collect(row, rows, watermark), columns)
+                .thenApply(count -> {
+                    if (count < 0) return count;
+                    local.replaceAll(table, rows, watermark[0]);
+                    Log.d(TAG, table + ": full sync, " + rows.size() + " rows");
+                    return rows.size();
+                });
+    }
+
+    private CompletableFuture<Integer> deltaSync(String watermark, String tombstoneWatermark) {
+        Map<String, String> changed = new LinkedHashMap<>();
+        String[] newWatermark = {watermark};
+        List<String> deletedIds = new ArrayList<>();
+        String[] newTombstoneWatermark = {tombstoneWatermark};
+
+        CompletableFuture<Integer> changes = remote.streamChangedSince(overlapStart(watermark),
+                row -> collect(row, changed, newWatermark), columns);
+        CompletableFuture<Integer> deletions = tombstones.streamDeletedSince(table, overlapStart(tombstoneWatermark), row -> {
+            deletedIds.add(row.get("row_id").getAsString());
+            newTombstoneWatermark[0] = max(newTombstoneWatermark[0], string(row.get("deleted_at")));
+        });
+
+        return changes.thenCombine(deletions, (changeCount, deleteCount) -> {
+            if (changeCount < 0) return changeCount;
+            if (deleteCount < 0) return -1;
+            local.applyChanges(table, changed, deletedIds, newWatermark[0], newTombstoneWatermark[0]);
+            Log.d(TAG, table + ": " + changed.size() + " changed, " + deletedIds.size() + " deleted");
+            return changed.size() + deletedIds.size();
+        });
+    }
+
+    /**
+     * Keep the row's JSON by id and track the highest updated_at seen
+     */
+    private static void collect(JsonObject row, Map<String, String> rows, String[] watermark) {
+        String id = string(row.get("id"));
+        if (id != null) {
+            rows.put(id, row.toString());
+        }
+        watermark[0] = max(watermark[0], string(row.get("updated_at")));
+    }
+
+    /**
+     * Where a delta read starts: OVERLAP_MS before the watermark, to the whole second.
+     * Any zone suffix is kept. An unparseable watermark is used as it is.
+     */
+    static String overlapStart(String watermark) {
+        if (watermark == null || watermark.length() < TIMESTAMP_LENGTH) {
+            return watermark;
+        }
+        int zoneStart = TIMESTAMP_LENGTH;
+        if (zoneStart < watermark.length() && watermark.charAt(zoneStart) == '.') {
+            zoneStart++;
+            while (zoneStart < watermark.length() && Character.isDigit(watermark.charAt(zoneStart))) {
+                zoneStart++;
+            }
+        }
+        SimpleDateFormat format = new SimpleDateFormat(TIMESTAMP_FORMAT, Locale.ROOT);
+        // Only the difference matters, so any fixed zone works for the arithmetic
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        try {
+            Date time = format.parse(watermark.substring(0, TIMESTAMP_LENGTH));
+            return format.format(new Date(time.getTime() - OVERLAP_MS)) + watermark.substring(zoneStart);
+        } catch (ParseException e) {
+            Log.w(TAG, "Unexpected watermark format: " + watermark);
+            return watermark;
+        }
+    }
+
+    /**
+     * Timestamps come back in one ISO-8601 format, so they compare as strings
+     */
+    private static String max(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static String string(JsonElement element) {
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+}
@@ -7,6 +7,8 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.navigation.NavController;
+import androidx.navigation.NavDestination;
+import androidx.navigation.NavOptions;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.NavigationUI;
 import com.example.shipvoyage.R;
@@ -50,19 +52,19 @@ public class AdminMainActivity extends AppCompatActivity {
             int itemId = item.getItemId();
             
             if (itemId == R.id.nav_dashboard) {
-                navController.navigate(R.id.adminDashboardFragment);
+                navigateToTab(R.id.adminDashboardFragment);
                 return true;
             } else if (itemId == R.id.nav_manage) {
-                navController.navigate(R.id.manageMenuFragment);
+                navigateToTab(R.id.manageMenuFragment);
                 return true;
             } else if (itemId == R.id.nav_bookings) {
-                navController.navigate(R.id.viewBookingsFragment);
+                navigateToTab(R.id.viewBookingsFragment);
                 return true;
             } else if (itemId == R.id.nav_customers) {
-                navController.navigate(R.id.customerListFragment);
+                navigateToTab(R.id.customerListFragment);
                 return true;
             } else if (itemId == R.id.nav_profile) {
-                navController.navigate(R.id.adminProfileFragment);
+                navigateToTab(R.id.adminProfileFragment);
                 return true;
             }
             
@@ -70,10 +72,27 @@ public class AdminMainActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Switch tabs without stacking them: the back stack is popped to the dashboard,
+     * so the screens left behind are destroyed and their pending loads cancelled.
+     * Reselecting the current tab does nothing.
+     */
+    private void navigateToTab(int destinationId) {
+        NavDestination current = navController.getCurrentDestination();
+        if (current != null && current.getId() == destinationId) {
+            return;
+        }
+        NavOptions options = new NavOptions.Builder()
+                .setLaunchSingleTop(true)
+                .setPopUpTo(navController.getGraph().getStartDestinationId(), false)
+                .build();
+        navController.navigate(destinationId, null, options);
+    }
+
     private void setupBrandBar() {
         findViewById(R.id.adminBrandBar).setOnClickListener(v -> {
             if (navController != null) {
-                navController.navigate(R.id.adminDashboardFragment);
+                navigateToTab(R.id.adminDashboardFragment);
             }
         });
     }
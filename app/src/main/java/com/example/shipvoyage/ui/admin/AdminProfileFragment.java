@@ -19,6 +19,7 @@ import com.example.shipvoyage.R;
 import com.example.shipvoyage.dao.UserDAO;
 import com.example.shipvoyage.model.User;
 import com.example.shipvoyage.ui.auth.UserTypeActivity;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.util.List;
 
@@ -28,6 +29,7 @@ public class AdminProfileFragment extends Fragment {
     private Button logoutButton, changePasswordButton, changePasswordToggleButton, editButton;
     private LinearLayout changePasswordSection;
     private UserDAO userDAO;
+    private ViewScope viewScope;
     private String currentUserId;
     private boolean isEditing = false;
     private User userBackup;
@@ -44,6 +46,7 @@ public class AdminProfileFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         userDAO = new UserDAO(requireContext());
+        viewScope = ViewScope.of(this);
         
         initViews(view);
         loadUserProfile();
@@ -105,38 +108,25 @@ public class AdminProfileFragment extends Fragment {
         currentUser.setEmail(email);
         currentUser.setPhone(phone);
         
-        userDAO.updateUser(currentUser)
-            .thenAccept(success -> {
-                if (success && getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        isEditing = false;
-                        nameField.setEnabled(false);
-                        emailField.setEnabled(false);
-                        phoneField.setEnabled(false);
-                        editButton.setText("Edit Profile");
-                        Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
-                    });
+        viewScope.deliver(userDAO.updateUser(currentUser),
+            success -> {
+                if (success) {
+                    isEditing = false;
+                    nameField.setEnabled(false);
+                    emailField.setEnabled(false);
+                    phoneField.setEnabled(false);
+                    editButton.setText("Edit Profile");
+                    Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
                 }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to update profile: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+            },
+            e -> Toast.makeText(requireContext(), "Failed to update profile: " + e.getMessage(), Toast.LENGTH_SHORT).show());
     }
 
     private void loadUserProfile() {
-        userDAO.getAllUsers()
-            .thenAccept(users -> {
+        viewScope.load(userDAO.getAllUsers(),
+            users -> {
                 if (users == null || users.isEmpty()) {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "No admin user found", Toast.LENGTH_SHORT).show();
-                        });
-                    }
+                    Toast.makeText(requireContext(), "No admin user found", Toast.LENGTH_SHORT).show();
                     return;
                 }
                 
@@ -155,21 +145,10 @@ public class AdminProfileFragment extends Fragment {
                 currentUser = adminUser;
                 currentUserId = adminUser.getId();
                 
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        emailField.setText(currentUser.getEmail());
-                        phoneField.setText(currentUser.getPhone() != null ? currentUser.getPhone() : "Not provided");
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load profile: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+                emailField.setText(currentUser.getEmail());
+                phoneField.setText(currentUser.getPhone() != null ? currentUser.getPhone() : "Not provided");
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load profile: " + e.getMessage(), Toast.LENGTH_SHORT).show());
     }
 
     private void changePassword() {
@@ -203,25 +182,16 @@ public class AdminProfileFragment extends Fragment {
         }
 
         currentUser.setPassword(newPassword);
-        userDAO.updateUser(currentUser)
-            .thenAccept(success -> {
-                if (success && getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Password changed successfully", Toast.LENGTH_SHORT).show();
-                        currentPasswordField.setText("");
-                        newPasswordField.setText("");
-                        confirmPasswordField.setText("");
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to change password: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    });
+        viewScope.deliver(userDAO.updateUser(currentUser),
+            success -> {
+                if (success) {
+                    Toast.makeText(requireContext(), "Password changed successfully", Toast.LENGTH_SHORT).show();
+                    currentPasswordField.setText("");
+                    newPasswordField.setText("");
+                    confirmPasswordField.setText("");
                 }
-                return null;
-            });
+            },
+            e -> Toast.makeText(requireContext(), "Failed to change password: " + e.getMessage(), Toast.LENGTH_SHORT).show());
     }
 
     private void toggleChangePasswordSection() {
@@ -0,0 +1,107 @@
+package com.example.shipvoyage.ui.admin;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+
+import com.example.shipvoyage.dao.DashboardStatsDAO;
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.DashboardStats;
+import com.example.shipvoyage.model.Room;
+import com.example.shipvoyage.model.Ship;
+import com.example.shipvoyage.model.Tour;
+import com.example.shipvoyage.model.TourInstance;
+import com.example.shipvoyage.model.User;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.repository.SharedDataset;
+
+import java.util.List;
+
+/**
+ * Data shown by the admin bottom-nav tabs, scoped to AdminMainActivity so it outlives
+ * the tab fragments. Switching back to a tab shows what it had loaded straight away;
+ * only datasets older than their max age are fetched again.
+ * Get it with new ViewModelProvider(requireActivity()).get(AdminViewModel.class).
+ */
+public class AdminViewModel extends AndroidViewModel {
+    /**
+     * How long the dashboard counters are shown before they are fetched again
+     */
+    public static final long STATS_MAX_AGE_MS = 60_000;
+
+    private final SharedDataset<DashboardStats> dashboardStats;
+    private final SharedDataset<List<Tour>> tours;
+    private final SharedDataset<List<TourInstance>> tourInstances;
+    private final SharedDataset<List<Ship>> ships;
+    private final SharedDataset<List<Room>> rooms;
+    private final SharedDataset<List<Booking>> bookings;
+    private final SharedDataset<List<User>> customers;
+    private String bookingsInstanceId;
+
+    public AdminViewModel(@NonNull Application application) {
+        super(application);
+        DashboardStatsDAO dashboardStatsDAO = new DashboardStatsDAO(application);
+        long maxAge = EntityRepository.DEFAULT_REFRESH_INTERVAL_MS;
+
+        dashboardStats = new SharedDataset<>(dashboardStatsDAO::getStats, STATS_MAX_AGE_MS);
+        tours = new SharedDataset<>(Repositories.tours(application)::getAll, maxAge);
+        tourInstances = new SharedDataset<>(Repositories.tourInstances(application)::getAll, maxAge);
+        ships = new SharedDataset<>(Repositories.ships(application)::getAll, maxAge);
+        rooms = new SharedDataset<>(Repositories.rooms(application)::getAll, maxAge);
+        // Every mirrored booking; screens pick one instance's active bookings locally
+        bookings = new SharedDataset<>(Repositories.bookings(application)::getAll, maxAge);
+        // Every mirrored user; the customer list keeps the passengers
+        customers = new SharedDataset<>(Repositories.users(application)::getAll, maxAge);
+    }
+
+    public SharedDataset<DashboardStats> getDashboardStats() {
+        return dashboardStats;
+    }
+
+    public SharedDataset<List<Tour>> getTours() {
+        return tours;
+    }
+
+    public SharedDataset<List<TourInstance>> getTourInstances() {
+        return tourInstances;
+    }
+
+    public SharedDataset<List<Ship>> getShips() {
+        return ships;
+    }
+
+    public SharedDataset<List<Room>> getRooms() {
+        return rooms;
+    }
+
+    public SharedDataset<List<Booking>> getBookings() {
+        return bookings;
+    }
+
+    /**
+     * Tour instance the bookings tab was showing (null for all), restored when it comes back
+     */
+    public String getBookingsInstanceId() {
+        return bookingsInstanceId;
+    }
+
+    public void setBookingsInstanceId(String instanceId) {
+        bookingsInstanceId = instanceId;
+    }
+
+    public SharedDataset<List<User>> getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Call after a booking or customer is changed: the lists and the dashboard counters
+     * reload the next time they are shown
+     */
+    public void onDataChanged() {
+        bookings.invalidate();
+        customers.invalidate();
+        dashboardStats.invalidate();
+    }
+}
@@ -21,24 +21,23 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.BookingAdapter;
+import com.example.shipvoyage.dao.AvailabilityIndex;
 import com.example.shipvoyage.dao.BookingDAO;
-import com.example.shipvoyage.dao.RoomDAO;
-import com.example.shipvoyage.dao.ShipDAO;
-import com.example.shipvoyage.dao.TourDAO;
-import com.example.shipvoyage.dao.TourInstanceDAO;
+import com.example.shipvoyage.dao.EntityIndex;
 import com.example.shipvoyage.model.Booking;
 import com.example.shipvoyage.model.Room;
 import com.example.shipvoyage.model.Ship;
 import com.example.shipvoyage.model.Tour;
 import com.example.shipvoyage.model.TourInstance;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.ViewScope;
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class ManageBookingsFragment extends Fragment {
 
@@ -48,16 +47,19 @@ public class ManageBookingsFragment extends Fragment {
     private TextView emptyStateText;
 
     private BookingAdapter bookingAdapter;
-    private TourInstanceDAO tourInstanceDAO;
+    private EntityRepository<TourInstance> tourInstanceRepository;
     private BookingDAO bookingDAO;
-    private RoomDAO roomDAO;
-    private TourDAO tourDAO;
-    private ShipDAO shipDAO;
+    private EntityRepository<Booking> bookingRepository;
+    private EntityRepository<Tour> tourRepository;
+    private EntityRepository<Ship> shipRepository;
+    private EntityRepository<Room> roomRepository;
 
     private List<TourInstance> tourInstances;
     private TourInstance selectedTourInstance;
     private List<Tour> tours;
     private List<Ship> ships;
+    private final EntityIndex entityIndex = new EntityIndex();
+    private ViewScope viewScope;
 
     @Nullable
     @Override
@@ -74,11 +76,13 @@ public class ManageBookingsFragment extends Fragment {
         bookingsRecyclerView = view.findViewById(R.id.bookingsRecyclerView);
         emptyStateText = view.findViewById(R.id.emptyStateText);
 
-        tourInstanceDAO = new TourInstanceDAO(requireContext());
+        tourInstanceRepository = Repositories.tourInstances(requireContext());
         bookingDAO = new BookingDAO(requireContext());
-        roomDAO = new RoomDAO(requireContext());
-        tourDAO = new TourDAO(requireContext());
-        shipDAO = new ShipDAO(requireContext());
+        bookingRepository = Repositories.bookings(requireContext());
+        tourRepository = Repositories.tours(requireContext());
+        shipRepository = Repositories.ships(requireContext());
+        roomRepository = Repositories.rooms(requireContext());
+        viewScope = ViewScope.of(this);
 
         tourInstances = new ArrayList<>();
         tours = new ArrayList<>();
@@ -128,138 +132,64 @@ public class ManageBookingsFragment extends Fragment {
     }
 
     private void loadToursAndShips() {
-        tourDAO.getAllTours().thenAccept(loadedTours -> {
-            tours = loadedTours;
-            shipDAO.getAllShips().thenAccept(loadedShips -> {
-                ships = loadedShips;
+        CompletableFuture<List<Tour>> loadedTours = tourRepository.getAll();
+        CompletableFuture<List<Ship>> loadedShips = shipRepository.getAll();
+        CompletableFuture<List<Room>> loadedRooms = roomRepository.getAll();
+        viewScope.load(CompletableFuture.allOf(loadedTours, loadedShips, loadedRooms),
+            done -> {
+                tours = loadedTours.join();
+                ships = loadedShips.join();
+                entityIndex.setTours(tours);
+                entityIndex.setShips(ships);
+                entityIndex.setRooms(loadedRooms.join());
                 loadTourInstances();
-            });
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(getContext(), "Failed to load data", Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+            },
+            throwable -> Toast.makeText(getContext(), "Failed to load data", Toast.LENGTH_SHORT).show());
     }
 
     private void loadTourInstances() {
-        tourInstanceDAO.getAllTourInstances().thenAccept(instances -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    tourInstances = instances;
-                    
-                    // Populate transient fields
-                    for (TourInstance instance : tourInstances) {
-                        for (Tour tour : tours) {
-                            if (tour.getId().equals(instance.getTourId())) {
-                                instance.setTourName(tour.getName());
-                                instance.setFromLocation(tour.getFrom());
-                                instance.setToLocation(tour.getTo());
-                                break;
-                            }
-                        }
-                        for (Ship ship : ships) {
-                            if (ship.getId().equals(instance.getShipId())) {
-                                instance.setShipName(ship.getName());
-                                break;
-                            }
-                        }
-                    }
-
-                    // Setup spinner
-                    List<String> instanceNames = new ArrayList<>();
-                    for (TourInstance instance : tourInstances) {
-                        instanceNames.add(instance.getTourName() + " - " + instance.getShipName() + 
-                                        " (" + instance.getStartDate() + ")");
-                    }
-                    ArrayAdapter<String> adapter = new ArrayAdapter<>(getContext(), 
-                            android.R.layout.simple_spinner_item, instanceNames);
-                    adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    tourInstanceSpinner.setAdapter(adapter);
-                });
-            }
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(getContext(), "Failed to load tour instances", Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+        viewScope.load(tourInstanceRepository.getAll(),
+            instances -> {
+                tourInstances = instances;
+                
+                // Populate transient fields
+                entityIndex.fillInstances(tourInstances);
+                entityIndex.setInstances(tourInstances);
+
+                // Setup spinner
+                List<String> instanceNames = new ArrayList<>();
+                for (TourInstance instance : tourInstances) {
+                    instanceNames.add(instance.getTourName() + " - " + instance.getShipName() + 
+                                    " (" + instance.getStartDate() + ")");
+                }
+                ArrayAdapter<String> adapter = new ArrayAdapter<>(getContext(), 
+                        android.R.layout.simple_spinner_item, instanceNames);
+                adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                tourInstanceSpinner.setAdapter(adapter);
+            },
+            throwable -> Toast.makeText(getContext(), "Failed to load tour instances", Toast.LENGTH_SHORT).show());
     }
 
     private void loadBookingsForInstance() {
         if (selectedTourInstance == null) return;
 
-        CompletableFuture<List<Booking>> bookingsFuture = bookingDAO.getBookingsByTourInstance(selectedTourInstance.getId());
-        CompletableFuture<List<Room>> roomsFuture = roomDAO.getAllRooms();
-
-        CompletableFuture.allOf(bookingsFuture, roomsFuture).thenAccept(v -> {
-            List<Booking> bookings = bookingsFuture.join();
-            List<Room> rooms = roomsFuture.join();
-
-            Map<String, Room> roomsMap = new HashMap<>();
-            if (rooms != null) {
-                for (Room room : rooms) {
-                    roomsMap.put(room.getId(), room);
+        // Active bookings of this instance from the mirror, joined with the rooms loaded above
+        String instanceId = selectedTourInstance.getId();
+        viewScope.load(bookingRepository.getAll(),
+            all -> {
+                List<Booking> bookings = EntityIndex.activeBookings(all, instanceId);
+                entityIndex.fillBookings(bookings);
+
+                if (bookings.isEmpty()) {
+                    emptyStateText.setVisibility(View.VISIBLE);
+                    bookingsRecyclerView.setVisibility(View.GONE);
+                } else {
+                    emptyStateText.setVisibility(View.GONE);
+                    bookingsRecyclerView.setVisibility(View.VISIBLE);
+                    bookingAdapter.submitList(bookings);
                 }
-            }
-
-            if (bookings != null) {
-                List<Booking> activeBookings = new ArrayList<>();
-                for (Booking booking : bookings) {
-                    if (booking.getStatus() != null && booking.getStatus().equalsIgnoreCase("CANCELLED")) {
-                        continue;
-                    }
-                    Room room = roomsMap.get(booking.getRoomId());
-                    if (room != null) {
-                        booking.setRoomName(room.getRoomNumber());
-                        booking.setRoomType(room.getType());
-                    }
-
-                    if (booking.getSelectedRooms() == null || booking.getSelectedRooms().isEmpty()) {
-                        if (room != null) {
-                            List<String> roomNumbers = new ArrayList<>();
-                            roomNumbers.add(room.getRoomNumber());
-                            booking.setSelectedRooms(roomNumbers);
-                        }
-                    } else {
-                        List<String> mappedRooms = new ArrayList<>();
-                        for (String selectedRoomId : booking.getSelectedRooms()) {
-                            Room mappedRoom = roomsMap.get(selectedRoomId);
-                            mappedRooms.add(mappedRoom != null ? mappedRoom.getRoomNumber() : selectedRoomId);
-                        }
-                        booking.setSelectedRooms(mappedRooms);
-                    }
-                    activeBookings.add(booking);
-                }
-                bookings = activeBookings;
-            }
-
-            final List<Booking> displayBookings = bookings;
-
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    if (displayBookings == null || displayBookings.isEmpty()) {
-                        emptyStateText.setVisibility(View.VISIBLE);
-                        bookingsRecyclerView.setVisibility(View.GONE);
-                    } else {
-                        emptyStateText.setVisibility(View.GONE);
-                        bookingsRecyclerView.setVisibility(View.VISIBLE);
-                        bookingAdapter.submitList(displayBookings);
-                    }
-                });
-            }
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(getContext(), "Failed to load bookings", Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+            },
+            throwable -> Toast.makeText(getContext(), "Failed to load bookings", Toast.LENGTH_SHORT).show());
     }
 
     private void cancelBooking(Booking booking) {
@@ -268,25 +198,16 @@ public class ManageBookingsFragment extends Fragment {
                 .setMessage("Are you sure you want to cancel this booking?")
                 .setPositiveButton("Cancel Booking", (dialog, which) -> {
                     booking.setStatus("CANCELLED");
-                    bookingDAO.updateBooking(booking.getId(), booking).thenAccept(success -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                if (success) {
-                                    Toast.makeText(getContext(), "Booking cancelled", Toast.LENGTH_SHORT).show();
-                                    loadBookingsForInstance();
-                                } else {
-                                    Toast.makeText(getContext(), "Failed to cancel booking", Toast.LENGTH_SHORT).show();
-                                }
-                            });
-                        }
-                    }).exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                            });
-                        }
-                        return null;
-                    });
+                    viewScope.deliver(updateBooking(booking),
+                        success -> {
+                            if (success) {
+                                Toast.makeText(getContext(), "Booking cancelled", Toast.LENGTH_SHORT).show();
+                                loadBookingsForInstance();
+                            } else {
+                                Toast.makeText(getContext(), "Failed to cancel booking", Toast.LENGTH_SHORT).show();
+                            }
+                        },
+                        e -> Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
                 })
                 .setNegativeButton("Keep", (dialog, which) -> dialog.dismiss())
                 .show();
@@ -403,26 +324,17 @@ public class ManageBookingsFragment extends Fragment {
                 booking.setPaidAmount(advance);
                 booking.setDueAmount(Math.max(0, due));
 
-                bookingDAO.updateBooking(booking.getId(), booking).thenAccept(success -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            if (success) {
-                                Toast.makeText(requireContext(), "Booking updated", Toast.LENGTH_SHORT).show();
-                                dialog.dismiss();
-                                loadBookingsForInstance();
-                            } else {
-                                Toast.makeText(requireContext(), "Failed to update booking", Toast.LENGTH_SHORT).show();
-                            }
-                        });
-                    }
-                }).exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        });
-                    }
-                    return null;
-                });
+                viewScope.deliver(updateBooking(booking),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Booking updated", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                            loadBookingsForInstance();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update booking", Toast.LENGTH_SHORT).show();
+                        }
+                    },
+                    e -> Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
             } catch (NumberFormatException e) {
                 Toast.makeText(requireContext(), "Invalid number format", Toast.LENGTH_SHORT).show();
             }
@@ -548,7 +460,7 @@ public class ManageBookingsFragment extends Fragment {
                 double due = total - advance;
                 String paymentDetails = paymentDetailsInput.getText().toString().trim();
 
-                // Create booking for first selected room
+                // Customer and payment details, booked for every selected room at once
                 Room firstRoom = selectedRooms.get(0);
                 Booking booking = new Booking(
                         UUID.randomUUID().toString(),
@@ -567,7 +479,7 @@ public class ManageBookingsFragment extends Fragment {
                         childCount
                 );
 
-                saveBooking(booking, dialog);
+                saveBooking(booking, selectedRooms, dialog);
             } catch (NumberFormatException e) {
                 Toast.makeText(getContext(), "Invalid number format", Toast.LENGTH_SHORT).show();
             }
@@ -576,12 +488,15 @@ public class ManageBookingsFragment extends Fragment {
         dialog.show();
     }
 
-    private void saveBooking(Booking booking, AlertDialog dialog) {
+    private void saveBooking(Booking booking, List<Room> rooms, AlertDialog dialog) {
+        List<String> roomIds = new ArrayList<>();
+        for (Room room : rooms) {
+            roomIds.add(room.getId());
+        }
         // Log booking details for debugging
         android.util.Log.d("ManageBookings", "Saving booking: " + 
-            "\n  ID: " + booking.getId() +
             "\n  Tour Instance: " + booking.getTourInstanceId() +
-            "\n  Room: " + booking.getRoomId() +
+            "\n  Rooms: " + roomIds +
             "\n  Name: " + booking.getName() +
             "\n  Phone: " + booking.getPhone() +
             "\n  Email: " + booking.getEmail() +
@@ -593,29 +508,26 @@ public class ManageBookingsFragment extends Fragment {
             "\n  Adults: " + booking.getAdultCount() +
             "\n  Children: " + booking.getChildCount());
         
-        bookingDAO.addBooking(booking).thenAccept(success -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    if (success) {
-                        Toast.makeText(getContext(), "Booking saved successfully", Toast.LENGTH_SHORT).show();
-                        dialog.dismiss();
-                        loadBookingsForInstance();
-                    } else {
-                        Toast.makeText(getContext(), "Failed to save booking - Check Logcat for details", Toast.LENGTH_LONG).show();
-                        android.util.Log.e("ManageBookings", "Booking save returned false - possible database constraint violation");
-                    }
-                });
-            }
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    String errorMsg = throwable.getMessage();
-                    Toast.makeText(getContext(), "Error: " + errorMsg, Toast.LENGTH_LONG).show();
-                    android.util.Log.e("ManageBookings", "Booking save exception: ", throwable);
-                });
-            }
-            return null;
-        });
+        viewScope.deliver(bookingDAO.bookRooms(booking.getTourInstanceId(), roomIds, booking),
+            result -> {
+                if (result == null) {
+                    Toast.makeText(getContext(), "Failed to save booking - Check Logcat for details", Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageBookings", "book_rooms returned no result - server unreachable or function missing");
+                } else if (!result.getConflicts().isEmpty()) {
+                    Toast.makeText(getContext(), "Already booked: "
+                            + String.join(", ", result.getConflictingRoomNumbers(rooms))
+                            + ". Nothing was saved.", Toast.LENGTH_LONG).show();
+                } else {
+                    Toast.makeText(getContext(), "Booking saved successfully", Toast.LENGTH_SHORT).show();
+                    dialog.dismiss();
+                    // book_rooms() wrote on the server; pull the new rows into the mirror first
+                    viewScope.deliver(bookingRepository.refresh(), rows -> loadBookingsForInstance(), null);
+                }
+            },
+            throwable -> {
+                Toast.makeText(getContext(), "Error: " + throwable.getMessage(), Toast.LENGTH_LONG).show();
+                android.util.Log.e("ManageBookings", "Booking save exception: ", throwable);
+            });
     }
 
     private void deleteBooking(Booking booking) {
@@ -623,20 +535,34 @@ public class ManageBookingsFragment extends Fragment {
                 .setTitle("Delete Booking")
                 .setMessage("Are you sure you want to delete this booking?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    bookingDAO.deleteBooking(booking.getId()).thenAccept(success -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                if (success) {
-                                    Toast.makeText(getContext(), "Booking deleted", Toast.LENGTH_SHORT).show();
-                                    loadBookingsForInstance();
-                                } else {
-                                    Toast.makeText(getContext(), "Failed to delete booking", Toast.LENGTH_SHORT).show();
-                                }
-                            });
+                    CompletableFuture<Boolean> deleted = bookingRepository.delete(booking.getId()).thenApply(success -> {
+                        if (success) {
+                            AvailabilityIndex.onBookingDeleted(booking);
                         }
+                        return success;
                     });
+                    viewScope.deliver(deleted,
+                        success -> {
+                            if (success) {
+                                Toast.makeText(getContext(), "Booking deleted", Toast.LENGTH_SHORT).show();
+                                loadBookingsForInstance();
+                            } else {
+                                Toast.makeText(getContext(), "Failed to delete booking", Toast.LENGTH_SHORT).show();
+                            }
+                        },
+                        null);
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
     }
+
+    /**
+     * Save a booking on the server and in the mirror
+     */
+    private CompletableFuture<Boolean> updateBooking(Booking booking) {
+        return bookingRepository.update(booking.getId(), booking).thenApply(success -> {
+            if (success) AvailabilityIndex.onBookingSaved(booking);
+            return success;
+        });
+    }
 }
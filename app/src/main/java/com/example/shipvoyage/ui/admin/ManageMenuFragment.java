@@ -1,16 +1,48 @@
 package com.example.shipvoyage.ui.admin;
 
+import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Environment;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.core.content.FileProvider;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.fragment.NavHostFragment;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.Toast;
 import com.example.shipvoyage.R;
+import com.example.shipvoyage.dao.BookingDAO;
+import com.example.shipvoyage.dao.UserDAO;
+import com.example.shipvoyage.export.ImportResult;
+import com.example.shipvoyage.export.TableExporter;
+import com.example.shipvoyage.export.TableImporter;
+import com.example.shipvoyage.util.ViewScope;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 public class ManageMenuFragment extends Fragment {
+    private ViewScope viewScope;
+    private Button exportBookingsBtn;
+    private Button exportCustomersBtn;
+    private Button importBookingsBtn;
+    private TableExporter exporter;
+
+    private final ActivityResultLauncher<String[]> pickImportFile =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importBookings);
 
     public ManageMenuFragment() {
         super(R.layout.fragment_manage_menu);
@@ -24,6 +56,7 @@ public class ManageMenuFragment extends Fragment {
     @Override
     public void onViewCreated(View view, Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
+        viewScope = ViewScope.of(this);
 
         NavController navController = NavHostFragment.findNavController(this);
 
@@ -44,5 +77,170 @@ public class ManageMenuFragment extends Fragment {
 
         Button manageBookingsBtn = view.findViewById(R.id.manageBookingsBtn);
         manageBookingsBtn.setOnClickListener(v -> navController.navigate(R.id.manageBookingsFragment));
+
+        exportBookingsBtn = view.findViewById(R.id.exportBookingsBtn);
+        exportBookingsBtn.setOnClickListener(v -> exportTable(
+                TableExporter.bookings(new BookingDAO(requireContext()), null), "Bookings", exportBookingsBtn));
+
+        exportCustomersBtn = view.findViewById(R.id.exportCustomersBtn);
+        exportCustomersBtn.setOnClickListener(v -> exportTable(
+                TableExporter.customers(new UserDAO(requireContext())), "Customers", exportCustomersBtn));
+
+        importBookingsBtn = view.findViewById(R.id.importBookingsBtn);
+        importBookingsBtn.setOnClickListener(v -> pickImportFile.launch(new String[] {
+                TableExporter.Format.CSV.getMimeType(),
+                "text/comma-separated-values",
+                TableExporter.Format.NDJSON.getMimeType(),
+                "application/octet-stream"
+        }));
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // An import keeps running so its chunks are not cut off; an export is only a file
+        if (exporter != null) {
+            exporter.cancel();
+            exporter = null;
+        }
+    }
+
+    /**
+     * Write the table to a CSV file in the app's documents folder, then offer to share it
+     */
+    private void exportTable(TableExporter tableExporter, String name, Button button) {
+        if (exporter != null) {
+            Toast.makeText(requireContext(), "Export already in progress", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String fileName = name + "_" + new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date())
+                + TableExporter.Format.CSV.getExtension();
+        File file = new File(requireContext().getExternalFilesDir(Environment.DIRECTORY_DOCUMENTS), fileName);
+
+        OutputStream out;
+        try {
+            out = new FileOutputStream(file);
+        } catch (IOException e) {
+            Toast.makeText(requireContext(), "Failed to create export file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        exporter = tableExporter;
+        final CharSequence label = button.getText();
+        button.setEnabled(false);
+
+        // Rows are written on the export thread; the file is closed, and removed on failure, even if the view is gone
+        CompletableFuture<Integer> exported = tableExporter.exportTo(out, TableExporter.Format.CSV,
+                (rowsWritten, totalRows) -> viewScope.post(() -> {
+                    if (exporter == tableExporter) {
+                        button.setText("Exported " + rowsWritten + " of " + totalRows);
+                    }
+                }));
+        exported.whenComplete((rows, error) -> {
+            try {
+                out.close();
+            } catch (IOException e) {
+                android.util.Log.e("ManageMenuFragment", "Error closing export file", e);
+            }
+            if (error != null) {
+                file.delete();
+            }
+        });
+
+        viewScope.deliver(exported,
+            rows -> {
+                if (finishExport(tableExporter, button, label)) {
+                    Toast.makeText(requireContext(), "Exported " + rows + " rows", Toast.LENGTH_SHORT).show();
+                    shareFile(file);
+                }
+            },
+            e -> {
+                if (finishExport(tableExporter, button, label)) {
+                    Toast.makeText(requireContext(), "Failed to export: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                }
+            });
+    }
+
+    /**
+     * Restore the export button; false if the export was already abandoned
+     */
+    private boolean finishExport(TableExporter tableExporter, Button button, CharSequence label) {
+        if (exporter != tableExporter) return false;
+        exporter = null;
+        button.setEnabled(true);
+        button.setText(label);
+        return true;
+    }
+
+    private void shareFile(File file) {
+        Uri uri = FileProvider.getUriForFile(requireContext(),
+            requireContext().getPackageName() + ".fileprovider", file);
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType(TableExporter.Format.CSV.getMimeType());
+        intent.putExtra(Intent.EXTRA_STREAM, uri);
+        intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+
+        try {
+            startActivity(Intent.createChooser(intent, "Share export"));
+        } catch (Exception e) {
+            Toast.makeText(requireContext(), "Saved to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    /**
+     * Load a CSV or NDJSON file of bookings, updating rows whose id already exists
+     */
+    private void importBookings(Uri uri) {
+        if (uri == null || viewScope == null || !viewScope.isActive()) return;
+        TableExporter.Format format = TableExporter.Format.NDJSON.getMimeType().equals(requireContext().getContentResolver().getType(uri))
+                || uri.toString().endsWith(TableExporter.Format.NDJSON.getExtension())
+                ? TableExporter.Format.NDJSON : TableExporter.Format.CSV;
+
+        InputStream in;
+        try {
+            in = requireContext().getContentResolver().openInputStream(uri);
+        } catch (IOException e) {
+            in = null;
+        }
+        if (in == null) {
+            Toast.makeText(requireContext(), "Failed to open file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        final CharSequence label = importBookingsBtn.getText();
+        importBookingsBtn.setEnabled(false);
+        AdminViewModel viewModel = new ViewModelProvider(requireActivity()).get(AdminViewModel.class);
+
+        final InputStream source = in;
+        CompletableFuture<ImportResult> imported = new TableImporter(new BookingDAO(requireContext()))
+                .setUpsert(true)
+                .importFrom(source, format, (rowsRead, rowsImported, rowsFailed) -> viewScope.post(() ->
+                        importBookingsBtn.setText("Imported " + rowsImported + " of " + rowsRead)));
+        imported.whenComplete((result, error) -> {
+            try {
+                source.close();
+            } catch (IOException e) {
+                android.util.Log.e("ManageMenuFragment", "Error closing import file", e);
+            }
+        });
+
+        viewScope.deliver(imported,
+            result -> {
+                importBookingsBtn.setEnabled(true);
+                importBookingsBtn.setText(label);
+                viewModel.onDataChanged();
+                if (result.isSuccessful()) {
+                    Toast.makeText(requireContext(), "Imported " + result.getImportedCount() + " bookings", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(requireContext(), "Imported " + result.getImportedCount() + ", rejected "
+                            + result.getFailedCount() + ": " + result.getFailures().get(0), Toast.LENGTH_LONG).show();
+                }
+            },
+            e -> {
+                importBookingsBtn.setEnabled(true);
+                importBookingsBtn.setText(label);
+                viewModel.onDataChanged();
+                Toast.makeText(requireContext(), "Failed to import: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            });
     }
 }
@@ -16,8 +16,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.RoomTypeAdapter;
-import com.example.shipvoyage.dao.RoomTypeDAO;
 import com.example.shipvoyage.model.RoomType;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,10 +29,11 @@ public class ManageRoomTypesFragment extends Fragment {
     private RecyclerView roomTypesRecyclerView;
     private EditText roomTypeNameField;
     private Button addRoomTypeBtn;
-    private RoomTypeDAO roomTypeDAO;
+    private EntityRepository<RoomType> roomTypeRepository;
     private RoomTypeAdapter roomTypeAdapter;
     private List<RoomType> roomTypes = new ArrayList<>();
     private String editingRoomTypeId = null;
+    private ViewScope viewScope;
 
     @Nullable
     @Override
@@ -41,7 +44,8 @@ public class ManageRoomTypesFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        roomTypeDAO = new RoomTypeDAO(requireContext());
+        roomTypeRepository = Repositories.roomTypes(requireContext());
+        viewScope = ViewScope.of(this);
         initViews(view);
         setupListeners();
         loadRoomTypes();
@@ -63,23 +67,14 @@ public class ManageRoomTypesFragment extends Fragment {
 
             @Override
             public void onDelete(RoomType roomType) {
-                roomTypeDAO.deleteById(roomType.getId())
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Room type deleted", Toast.LENGTH_SHORT).show();
-                                loadRoomTypes();
-                            });
-                        }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to delete room type", Toast.LENGTH_SHORT).show();
-                            });
+                viewScope.deliver(roomTypeRepository.delete(roomType.getId()),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Room type deleted", Toast.LENGTH_SHORT).show();
+                            loadRoomTypes();
                         }
-                        return null;
-                    });
+                    },
+                    e -> Toast.makeText(requireContext(), "Failed to delete room type", Toast.LENGTH_SHORT).show());
             }
         });
         roomTypesRecyclerView.setAdapter(roomTypeAdapter);
@@ -90,26 +85,15 @@ public class ManageRoomTypesFragment extends Fragment {
     }
 
     private void loadRoomTypes() {
-        roomTypeDAO.getAllRoomTypes()
-            .thenAccept(types -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        roomTypes.clear();
-                        if (types != null) {
-                            roomTypes.addAll(types);
-                        }
-                        roomTypeAdapter.submitList(new ArrayList<>(roomTypes));
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load room types", Toast.LENGTH_SHORT).show();
-                    });
+        viewScope.load(roomTypeRepository.getAll(),
+            types -> {
+                roomTypes.clear();
+                if (types != null) {
+                    roomTypes.addAll(types);
                 }
-                return null;
-            });
+                roomTypeAdapter.submitList(new ArrayList<>(roomTypes));
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load room types", Toast.LENGTH_SHORT).show());
     }
 
     private void saveRoomType() {
@@ -122,56 +106,34 @@ public class ManageRoomTypesFragment extends Fragment {
         if (editingRoomTypeId != null) {
             // Update existing room type
             RoomType roomType = new RoomType(editingRoomTypeId, name);
-            roomTypeDAO.updateById(editingRoomTypeId, roomType)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            roomTypeNameField.setText("");
-                            addRoomTypeBtn.setText("Add");
-                            editingRoomTypeId = null;
-                            Toast.makeText(requireContext(), "Room type updated", Toast.LENGTH_SHORT).show();
-                            loadRoomTypes();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to update room type", Toast.LENGTH_SHORT).show();
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to update room type", Toast.LENGTH_SHORT).show();
-                        });
+            viewScope.deliver(roomTypeRepository.update(editingRoomTypeId, roomType),
+                success -> {
+                    if (success) {
+                        roomTypeNameField.setText("");
+                        addRoomTypeBtn.setText("Add");
+                        editingRoomTypeId = null;
+                        Toast.makeText(requireContext(), "Room type updated", Toast.LENGTH_SHORT).show();
+                        loadRoomTypes();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to update room type", Toast.LENGTH_SHORT).show();
                     }
-                    return null;
-                });
+                },
+                e -> Toast.makeText(requireContext(), "Failed to update room type", Toast.LENGTH_SHORT).show());
         } else {
             // Add new room type
             String id = UUID.randomUUID().toString();
             RoomType roomType = new RoomType(id, name);
-            roomTypeDAO.insert(roomType)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            roomTypeNameField.setText("");
-                            Toast.makeText(requireContext(), "Room type added", Toast.LENGTH_SHORT).show();
-                            loadRoomTypes();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to add room type", Toast.LENGTH_SHORT).show();
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to add room type", Toast.LENGTH_SHORT).show();
-                        });
+            viewScope.deliver(roomTypeRepository.insert(roomType),
+                success -> {
+                    if (success) {
+                        roomTypeNameField.setText("");
+                        Toast.makeText(requireContext(), "Room type added", Toast.LENGTH_SHORT).show();
+                        loadRoomTypes();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to add room type", Toast.LENGTH_SHORT).show();
                     }
-                    return null;
-                });
+                },
+                e -> Toast.makeText(requireContext(), "Failed to add room type", Toast.LENGTH_SHORT).show());
         }
     }
 }
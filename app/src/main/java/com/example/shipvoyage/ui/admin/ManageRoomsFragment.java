@@ -20,32 +20,47 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.RoomAdapter;
-import com.example.shipvoyage.dao.RoomDAO;
-import com.example.shipvoyage.dao.RoomTypeDAO;
-import com.example.shipvoyage.dao.ShipDAO;
+import com.example.shipvoyage.dao.BatchResult;
 import com.example.shipvoyage.model.Room;
 import com.example.shipvoyage.model.RoomType;
 import com.example.shipvoyage.model.Ship;
-import com.example.shipvoyage.util.ThreadPool;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.SearchIndex;
+import com.example.shipvoyage.util.SearchPipeline;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class ManageRoomsFragment extends Fragment {
+    // A range such as "101-120" adds one room per number
+    private static final Pattern ROOM_RANGE = Pattern.compile("(\\d{1,6})\\s*-\\s*(\\d{1,6})");
+
     private RecyclerView roomsRecyclerView;
     private EditText roomNumberField, searchField;
     private Spinner shipSpinner, typeSpinner;
     private Button saveBtn, cancelBtn, searchBtn, addToggleBtn;
     private View formContainer;
-    private RoomDAO roomDAO;
-    private RoomTypeDAO roomTypeDAO;
-    private ShipDAO shipDAO;
+    private EntityRepository<Room> roomRepository;
+    private EntityRepository<RoomType> roomTypeRepository;
+    private EntityRepository<Ship> shipRepository;
     private List<Room> roomsList = new ArrayList<>();
+    private final SearchIndex<Room> roomIndex = new SearchIndex<>(Room::getId, Room::getRoomNumber, Room::getType);
     private List<RoomType> roomTypesList = new ArrayList<>();
     private List<String> roomTypeNames = new ArrayList<>();
     private ArrayAdapter<String> typeAdapter;
     private List<Ship> shipsList = new ArrayList<>();
     private RoomAdapter roomAdapter;
+    private SearchPipeline<Room> searchPipeline;
+    private ViewScope viewScope;
     private String editingRoomId = null;
     private boolean isFormVisible = false;
     private String selectedShipId = null;
@@ -59,16 +74,24 @@ public class ManageRoomsFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        roomDAO = new RoomDAO(requireContext());
-        roomTypeDAO = new RoomTypeDAO(requireContext());
-        shipDAO = new ShipDAO(requireContext());
+        roomRepository = Repositories.rooms(requireContext());
+        roomTypeRepository = Repositories.roomTypes(requireContext());
+        shipRepository = Repositories.ships(requireContext());
+        viewScope = ViewScope.of(this);
         initViews(view);
+        searchPipeline = new SearchPipeline<>(this::searchRooms, roomAdapter::submitList);
         setupListeners();
         loadRoomTypes();
         loadShips();
         loadRooms();
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        searchPipeline.cancel();
+    }
+
     private void initViews(View view) {
         roomsRecyclerView = view.findViewById(R.id.roomsRecyclerView);
         roomNumberField = view.findViewById(R.id.roomNumberField);
@@ -104,23 +127,14 @@ public class ManageRoomsFragment extends Fragment {
 
             @Override
             public void onDelete(Room room) {
-                roomDAO.deleteById(room.getId())
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Room deleted", Toast.LENGTH_SHORT).show();
-                                loadRooms();
-                            });
+                viewScope.deliver(roomRepository.delete(room.getId()),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Room deleted", Toast.LENGTH_SHORT).show();
+                            loadRooms();
                         }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to delete room", Toast.LENGTH_SHORT).show();
-                            });
-                        }
-                        return null;
-                    });
+                    },
+                    e -> Toast.makeText(requireContext(), "Failed to delete room", Toast.LENGTH_SHORT).show());
             }
         });
         roomsRecyclerView.setAdapter(roomAdapter);
@@ -160,7 +174,7 @@ public class ManageRoomsFragment extends Fragment {
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                performSearch();
+                searchPipeline.setQuery(s.toString());
             }
             @Override
             public void afterTextChanged(Editable s) {}
@@ -176,26 +190,15 @@ public class ManageRoomsFragment extends Fragment {
     }
 
     private void loadRoomTypes() {
-        roomTypeDAO.getAllRoomTypes()
-            .thenAccept(types -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        roomTypesList.clear();
-                        if (types != null) {
-                            roomTypesList.addAll(types);
-                        }
-                        updateTypeSpinner();
-                    });
+        viewScope.load(roomTypeRepository.getAll(),
+            types -> {
+                roomTypesList.clear();
+                if (types != null) {
+                    roomTypesList.addAll(types);
                 }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load room types", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+                updateTypeSpinner();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load room types", Toast.LENGTH_SHORT).show());
     }
 
     private void updateTypeSpinner() {
@@ -230,24 +233,13 @@ public class ManageRoomsFragment extends Fragment {
     }
 
     private void loadShips() {
-        shipDAO.getAll(Ship.class)
-            .thenAccept(ships -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        shipsList.clear();
-                        shipsList.addAll(ships);
-                        updateShipSpinner();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load ships", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+        viewScope.load(shipRepository.getAll(),
+            ships -> {
+                shipsList.clear();
+                shipsList.addAll(ships);
+                updateShipSpinner();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load ships", Toast.LENGTH_SHORT).show());
     }
 
     private void updateShipSpinner() {
@@ -271,24 +263,14 @@ public class ManageRoomsFragment extends Fragment {
     }
 
     private void loadRooms() {
-        roomDAO.getAll(Room.class)
-            .thenAccept(rooms -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        roomsList.clear();
-                        roomsList.addAll(rooms);
-                        updateRecyclerView();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load rooms", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+        viewScope.load(roomRepository.getAll(),
+            rooms -> {
+                roomsList.clear();
+                roomsList.addAll(rooms);
+                roomIndex.setAll(roomsList);
+                updateRecyclerView();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load rooms", Toast.LENGTH_SHORT).show());
     }
 
     private void saveRoom() {
@@ -324,6 +306,12 @@ public class ManageRoomsFragment extends Fragment {
                 }
             }
             
+            Matcher range = ROOM_RANGE.matcher(roomNumber);
+            if (editingRoomId == null && range.matches()) {
+                addRoomRange(selectedShip, type, range.group(1), range.group(2), existingRoomCount);
+                return;
+            }
+            
             // Check if adding new room would exceed capacity
             if (existingRoomCount >= selectedShip.getCapacity()) {
                 Toast.makeText(requireContext(), 
@@ -337,58 +325,38 @@ public class ManageRoomsFragment extends Fragment {
             Room room = new Room(roomId, selectedShip.getId(), roomNumber, type, true);
             
             if (editingRoomId != null) {
-                roomDAO.updateRoom(roomId, room)
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Room updated successfully", Toast.LENGTH_SHORT).show();
-                                clearForm();
-                                toggleForm(false);
-                                loadRooms();
-                            });
-                        } else if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to update room - Check logcat", Toast.LENGTH_LONG).show();
-                                android.util.Log.e("ManageRoomsFragment", "Server returned false");
-                            });
-                        }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                String errorMsg = "Failed to update room: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                                Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                                android.util.Log.e("ManageRoomsFragment", "Error updating room", e);
-                            });
+                viewScope.deliver(roomRepository.update(roomId, room),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Room updated successfully", Toast.LENGTH_SHORT).show();
+                            clearForm();
+                            toggleForm(false);
+                            loadRooms();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update room - Check logcat", Toast.LENGTH_LONG).show();
+                            android.util.Log.e("ManageRoomsFragment", "Server returned false");
                         }
-                        return null;
+                    },
+                    e -> {
+                        Toast.makeText(requireContext(), "Failed to update room: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageRoomsFragment", "Error updating room", e);
                     });
             } else {
-                roomDAO.addRoom(room)
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Room saved successfully", Toast.LENGTH_SHORT).show();
-                                clearForm();
-                                toggleForm(false);
-                                loadRooms();
-                            });
-                        } else if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to save room - Check logcat", Toast.LENGTH_LONG).show();
-                                android.util.Log.e("ManageRoomsFragment", "Server returned false");
-                            });
+                viewScope.deliver(roomRepository.insert(room),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Room saved successfully", Toast.LENGTH_SHORT).show();
+                            clearForm();
+                            toggleForm(false);
+                            loadRooms();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to save room - Check logcat", Toast.LENGTH_LONG).show();
+                            android.util.Log.e("ManageRoomsFragment", "Server returned false");
                         }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                String errorMsg = "Failed to save room: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                                Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                                android.util.Log.e("ManageRoomsFragment", "Error saving room", e);
-                            });
-                        }
-                        return null;
+                    },
+                    e -> {
+                        Toast.makeText(requireContext(), "Failed to save room: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageRoomsFragment", "Error saving room", e);
                     });
             }
         } catch (Exception e) {
@@ -396,6 +364,70 @@ public class ManageRoomsFragment extends Fragment {
         }
     }
 
+    /**
+     * Add a room for every number from first to last in batched requests,
+     * skipping numbers the ship already has
+     */
+    private void addRoomRange(Ship ship, String type, String first, String last, int existingRoomCount) {
+        int start = Integer.parseInt(first);
+        int end = Integer.parseInt(last);
+        if (start > end) {
+            Toast.makeText(requireContext(), "Invalid room range", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (end - start + 1 > ship.getCapacity()) {
+            Toast.makeText(requireContext(), "Range is larger than the ship capacity of " + ship.getCapacity(),
+                    Toast.LENGTH_LONG).show();
+            return;
+        }
+
+        Set<String> taken = new HashSet<>();
+        for (Room room : roomsList) {
+            if (ship.getId().equals(room.getShipId())) {
+                taken.add(room.getRoomNumber());
+            }
+        }
+        // Keep zero padding, e.g. 001-010
+        String format = first.length() == last.length() ? "%0" + first.length() + "d" : "%d";
+        List<Room> rooms = new ArrayList<>();
+        for (int n = start; n <= end; n++) {
+            String number = String.format(Locale.US, format, n);
+            if (!taken.contains(number)) {
+                rooms.add(new Room(UUID.randomUUID().toString(), ship.getId(), number, type, true));
+            }
+        }
+        if (rooms.isEmpty()) {
+            Toast.makeText(requireContext(), "All rooms in that range already exist", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (existingRoomCount + rooms.size() > ship.getCapacity()) {
+            Toast.makeText(requireContext(), 
+                "Cannot add " + rooms.size() + " rooms! Ship capacity is " + ship.getCapacity() + 
+                " and already has " + existingRoomCount + " rooms.", 
+                Toast.LENGTH_LONG).show();
+            return;
+        }
+
+        viewScope.deliver(roomRepository.insertAll(rooms),
+            result -> {
+                if (result.isSuccessful()) {
+                    Toast.makeText(requireContext(), "Added " + result.getSucceededCount() + " rooms", Toast.LENGTH_SHORT).show();
+                    clearForm();
+                    toggleForm(false);
+                } else {
+                    BatchResult.Failure failure = result.getFailures().get(0);
+                    Toast.makeText(requireContext(), "Added " + result.getSucceededCount() + " rooms, "
+                            + result.getFailures().size() + " failed: " + failure.getMessage(), Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageRoomsFragment", "Bulk room add failed: " + result);
+                }
+                loadRooms();
+            },
+            e -> {
+                Toast.makeText(requireContext(), "Failed to add rooms: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                android.util.Log.e("ManageRoomsFragment", "Error adding rooms", e);
+            });
+    }
+
     private void clearForm() {
         editingRoomId = null;
         roomNumberField.setText("");
@@ -413,43 +445,30 @@ public class ManageRoomsFragment extends Fragment {
     }
 
     private void performSearch() {
-        String query = searchField.getText().toString().trim().toLowerCase();
-        List<Room> filteredRooms = new ArrayList<>();
-        
-        // If no ship selected (None), show empty list
-        if (selectedShipId == null) {
-            roomAdapter.submitList(new ArrayList<>());
-            return;
+        searchPipeline.submit(searchField.getText().toString());
+    }
+
+    /**
+     * Rooms of the selected ship matching the query; none when no ship is selected
+     */
+    private CompletableFuture<List<Room>> searchRooms(String query) {
+        String shipId = selectedShipId;
+        if (shipId == null) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
-        
-        for (Room room : roomsList) {
-            if (room.getShipId().equals(selectedShipId) &&
-                (query.isEmpty() || room.getRoomNumber().toLowerCase().contains(query) ||
-                room.getType().toLowerCase().contains(query))) {
-                filteredRooms.add(room);
+        return SearchPipeline.index(roomIndex).run(query).thenApply(matches -> {
+            List<Room> shipRooms = new ArrayList<>();
+            for (Room room : matches) {
+                if (shipId.equals(room.getShipId())) {
+                    shipRooms.add(room);
+                }
             }
-        }
-        roomAdapter.submitList(new ArrayList<>(filteredRooms));
+            return shipRooms;
+        });
     }
 
     private void filterRoomsByShip() {
-        String query = searchField.getText().toString().trim().toLowerCase();
-        List<Room> filteredRooms = new ArrayList<>();
-        
-        // If no ship selected (None), show empty list
-        if (selectedShipId == null) {
-            roomAdapter.submitList(new ArrayList<>());
-            return;
-        }
-        
-        for (Room room : roomsList) {
-            if (room.getShipId().equals(selectedShipId) &&
-                (query.isEmpty() || room.getRoomNumber().toLowerCase().contains(query) ||
-                room.getType().toLowerCase().contains(query))) {
-                filteredRooms.add(room);
-            }
-        }
-        roomAdapter.submitList(new ArrayList<>(filteredRooms));
+        performSearch();
     }
 
     private void updateRecyclerView() {
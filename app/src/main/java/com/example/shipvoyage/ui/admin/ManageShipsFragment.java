@@ -9,7 +9,6 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
-import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -19,8 +18,11 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.ShipAdapter;
-import com.example.shipvoyage.dao.ShipDAO;
 import com.example.shipvoyage.model.Ship;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.SearchPipeline;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,9 +37,11 @@ public class ManageShipsFragment extends Fragment {
     private Button searchBtn;
     private Button addToggleBtn;
     private View formContainer;
-    private ShipDAO shipDAO;
+    private EntityRepository<Ship> shipRepository;
     private List<Ship> shipsList;
     private ShipAdapter shipAdapter;
+    private SearchPipeline<Ship> searchPipeline;
+    private ViewScope viewScope;
     private boolean isFormVisible = false;
 
     @Nullable
@@ -50,13 +54,21 @@ public class ManageShipsFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        shipDAO = new ShipDAO(requireContext());
+        shipRepository = Repositories.ships(requireContext());
         shipsList = new ArrayList<>();
+        viewScope = ViewScope.of(this);
         initViews(view);
+        searchPipeline = new SearchPipeline<>(SearchPipeline.filter(() -> shipsList, this::matchesSearch), shipAdapter::submitList);
         setupListeners();
         loadShips();
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        searchPipeline.cancel();
+    }
+
     private void initViews(View view) {
         shipsRecyclerView = view.findViewById(R.id.shipsRecyclerView);
         nameField = view.findViewById(R.id.nameField);
@@ -79,23 +91,14 @@ public class ManageShipsFragment extends Fragment {
 
             @Override
             public void onDeleteClick(Ship ship) {
-                shipDAO.deleteById(ship.getId())
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Ship deleted", Toast.LENGTH_SHORT).show();
-                                loadShips();
-                            });
+                viewScope.deliver(shipRepository.delete(ship.getId()),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Ship deleted", Toast.LENGTH_SHORT).show();
+                            loadShips();
                         }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to delete ship", Toast.LENGTH_SHORT).show();
-                            });
-                        }
-                        return null;
-                    });
+                    },
+                    e -> Toast.makeText(requireContext(), "Failed to delete ship", Toast.LENGTH_SHORT).show());
             }
         });
         shipsRecyclerView.setAdapter(shipAdapter);
@@ -121,7 +124,7 @@ public class ManageShipsFragment extends Fragment {
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                performSearch();
+                searchPipeline.setQuery(s.toString());
             }
 
             @Override
@@ -131,24 +134,15 @@ public class ManageShipsFragment extends Fragment {
     }
 
     private void loadShips() {
-        shipDAO.getAllShips()
-            .thenAccept(ships -> {
-                if (ships != null && getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        shipsList.clear();
-                        shipsList.addAll(ships);
-                        updateRecyclerView();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load ships", Toast.LENGTH_SHORT).show();
-                    });
+        viewScope.load(shipRepository.getAll(),
+            ships -> {
+                if (ships != null) {
+                    shipsList.clear();
+                    shipsList.addAll(ships);
+                    updateRecyclerView();
                 }
-                return null;
-            });
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load ships", Toast.LENGTH_SHORT).show());
     }
 
     private void saveShip() {
@@ -188,31 +182,21 @@ public class ManageShipsFragment extends Fragment {
             "id=" + ship.getId() + ", name=" + ship.getName() + 
             ", capacity=" + ship.getCapacity() + ", desc=" + ship.getDescription());
         
-        shipDAO.addShip(ship)
-            .thenAccept(success -> {
-                if (success && getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Ship saved successfully", Toast.LENGTH_SHORT).show();
-                        clearForm();
-                        toggleForm(false);
-                        loadShips();
-                    });
-                } else if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to save ship - Check logcat for details", Toast.LENGTH_LONG).show();
-                        android.util.Log.e("ManageShipsFragment", "Server returned false when saving ship");
-                    });
+        viewScope.deliver(shipRepository.insert(ship),
+            success -> {
+                if (success) {
+                    Toast.makeText(requireContext(), "Ship saved successfully", Toast.LENGTH_SHORT).show();
+                    clearForm();
+                    toggleForm(false);
+                    loadShips();
+                } else {
+                    Toast.makeText(requireContext(), "Failed to save ship - Check logcat for details", Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageShipsFragment", "Server returned false when saving ship");
                 }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        String errorMsg = "Failed to save ship: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                        Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                        android.util.Log.e("ManageShipsFragment", "Error saving ship", e);
-                    });
-                }
-                return null;
+            },
+            e -> {
+                Toast.makeText(requireContext(), "Failed to save ship: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                android.util.Log.e("ManageShipsFragment", "Error saving ship", e);
             });
     }
 
@@ -223,23 +207,16 @@ public class ManageShipsFragment extends Fragment {
     }
 
     private void performSearch() {
-        String query = searchField.getText().toString().trim().toLowerCase();
-        if (query.isEmpty()) {
-            shipAdapter.submitList(new ArrayList<>(shipsList));
-            return;
-        }
+        searchPipeline.submit(searchField.getText().toString());
+    }
 
-        List<Ship> filteredShips = new ArrayList<>();
-        for (Ship ship : shipsList) {
-            if (ship.getName().toLowerCase().contains(query)) {
-                filteredShips.add(ship);
-            }
-        }
-        shipAdapter.submitList(new ArrayList<>(filteredShips));
+    private boolean matchesSearch(Ship ship, String query) {
+        return query.isEmpty() || ship.getName().toLowerCase().contains(query);
     }
 
     private void updateRecyclerView() {
-        shipAdapter.submitList(new ArrayList<>(shipsList));
+        // Re-apply the current search to the reloaded list
+        performSearch();
     }
 
     private void toggleForm(boolean show) {
@@ -20,19 +20,21 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.TourInstanceAdapter;
-import com.example.shipvoyage.dao.TourDAO;
-import com.example.shipvoyage.dao.TourInstanceDAO;
-import com.example.shipvoyage.dao.ShipDAO;
+import com.example.shipvoyage.dao.EntityIndex;
 import com.example.shipvoyage.model.Tour;
 import com.example.shipvoyage.model.TourInstance;
 import com.example.shipvoyage.model.Ship;
-import com.example.shipvoyage.util.ThreadPool;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.SearchPipeline;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 public class ManageTourInstancesFragment extends Fragment {
     private RecyclerView instancesRecyclerView;
@@ -40,13 +42,16 @@ public class ManageTourInstancesFragment extends Fragment {
     private Spinner tourSpinner, shipSpinner;
     private Button saveBtn, cancelBtn, searchBtn, addToggleBtn;
     private View formContainer;
-    private TourInstanceDAO instanceDAO;
-    private TourDAO tourDAO;
-    private ShipDAO shipDAO;
+    private EntityRepository<TourInstance> instanceRepository;
+    private EntityRepository<Tour> tourRepository;
+    private EntityRepository<Ship> shipRepository;
     private List<TourInstance> instancesList = new ArrayList<>();
     private List<Tour> toursList = new ArrayList<>();
     private List<Ship> shipsList = new ArrayList<>();
+    private final EntityIndex entityIndex = new EntityIndex();
     private TourInstanceAdapter adapter;
+    private SearchPipeline<TourInstance> searchPipeline;
+    private ViewScope viewScope;
     private String editingInstanceId = null;
     private static final int START_DATE = 1;
     private static final int END_DATE = 2;
@@ -62,14 +67,20 @@ public class ManageTourInstancesFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        instanceDAO = new TourInstanceDAO(requireContext());
-        tourDAO = new TourDAO(requireContext());
-        shipDAO = new ShipDAO(requireContext());
+        instanceRepository = Repositories.tourInstances(requireContext());
+        tourRepository = Repositories.tours(requireContext());
+        shipRepository = Repositories.ships(requireContext());
+        viewScope = ViewScope.of(this);
         initViews(view);
+        searchPipeline = new SearchPipeline<>(SearchPipeline.filter(() -> instancesList, this::matchesSearch), adapter::submitList);
         setupListeners();
-        loadTours();
-        loadShips();
-        loadInstances();
+        loadToursAndShips();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        searchPipeline.cancel();
     }
 
     private void initViews(View view) {
@@ -111,23 +122,14 @@ public class ManageTourInstancesFragment extends Fragment {
 
             @Override
             public void onDeleteClick(TourInstance instance) {
-                instanceDAO.deleteById(instance.getId())
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Instance deleted", Toast.LENGTH_SHORT).show();
-                                loadInstances();
-                            });
-                        }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to delete instance", Toast.LENGTH_SHORT).show();
-                            });
+                viewScope.deliver(instanceRepository.delete(instance.getId()),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Instance deleted", Toast.LENGTH_SHORT).show();
+                            loadInstances();
                         }
-                        return null;
-                    });
+                    },
+                    e -> Toast.makeText(requireContext(), "Failed to delete instance", Toast.LENGTH_SHORT).show());
             }
         });
         instancesRecyclerView.setAdapter(adapter);
@@ -158,53 +160,32 @@ public class ManageTourInstancesFragment extends Fragment {
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                performSearch();
+                searchPipeline.setQuery(s.toString());
             }
             @Override
             public void afterTextChanged(Editable s) {}
         });
     }
 
-    private void loadTours() {
-        tourDAO.getAll(Tour.class)
-            .thenAccept(tours -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        toursList.clear();
-                        toursList.addAll(tours);
-                        updateTourSpinner();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load tours", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
-    }
-
-    private void loadShips() {
-        shipDAO.getAll(Ship.class)
-            .thenAccept(ships -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        shipsList.clear();
-                        shipsList.addAll(ships);
-                        updateShipSpinner();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load ships", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+    /**
+     * Tour and ship names are resolved from these lists, so instances load after them
+     */
+    private void loadToursAndShips() {
+        CompletableFuture<List<Tour>> tours = tourRepository.getAll();
+        CompletableFuture<List<Ship>> ships = shipRepository.getAll();
+        viewScope.load(CompletableFuture.allOf(tours, ships),
+            done -> {
+                toursList.clear();
+                toursList.addAll(tours.join());
+                entityIndex.setTours(toursList);
+                updateTourSpinner();
+                shipsList.clear();
+                shipsList.addAll(ships.join());
+                entityIndex.setShips(shipsList);
+                updateShipSpinner();
+                loadInstances();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load tours and ships", Toast.LENGTH_SHORT).show());
     }
 
     private void updateTourSpinner() {
@@ -240,40 +221,18 @@ public class ManageTourInstancesFragment extends Fragment {
     }
 
     private void loadInstances() {
-        instanceDAO.getAll(TourInstance.class)
-            .thenAccept(instances -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        // Populate tour and ship names from the loaded lists
-                        for (TourInstance instance : instances) {
-                            for (Tour tour : toursList) {
-                                if (tour.getId().equals(instance.getTourId())) {
-                                    instance.setTourName(tour.getName());
-                                    break;
-                                }
-                            }
-                            for (Ship ship : shipsList) {
-                                if (ship.getId().equals(instance.getShipId())) {
-                                    instance.setShipName(ship.getName());
-                                    break;
-                                }
-                            }
-                        }
-                        
-                        instancesList.clear();
-                        instancesList.addAll(instances);
-                        updateRecyclerView();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load instances", Toast.LENGTH_SHORT).show();
-                        android.util.Log.e("ManageTourInstancesFragment", "Error loading instances", e);
-                    });
-                }
-                return null;
+        viewScope.load(instanceRepository.getAll(),
+            instances -> {
+                // Populate tour and ship names from the loaded lists
+                entityIndex.fillInstances(instances);
+                
+                instancesList.clear();
+                instancesList.addAll(instances);
+                updateRecyclerView();
+            },
+            e -> {
+                Toast.makeText(requireContext(), "Failed to load instances", Toast.LENGTH_SHORT).show();
+                android.util.Log.e("ManageTourInstancesFragment", "Error loading instances", e);
             });
     }
 
@@ -297,58 +256,38 @@ public class ManageTourInstancesFragment extends Fragment {
         instance.setShipName(selectedShip.getName());
         
         if (editingInstanceId != null) {
-            instanceDAO.updateTourInstance(instanceId, instance)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Instance updated successfully", Toast.LENGTH_SHORT).show();
-                            clearForm();
-                            toggleForm(false);
-                            loadInstances();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to update instance - Check logcat", Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageTourInstancesFragment", "Server returned false");
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            String errorMsg = "Failed to update instance: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                            Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageTourInstancesFragment", "Error updating instance", e);
-                        });
+            viewScope.deliver(instanceRepository.update(instanceId, instance),
+                success -> {
+                    if (success) {
+                        Toast.makeText(requireContext(), "Instance updated successfully", Toast.LENGTH_SHORT).show();
+                        clearForm();
+                        toggleForm(false);
+                        loadInstances();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to update instance - Check logcat", Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageTourInstancesFragment", "Server returned false");
                     }
-                    return null;
+                },
+                e -> {
+                    Toast.makeText(requireContext(), "Failed to update instance: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageTourInstancesFragment", "Error updating instance", e);
                 });
         } else {
-            instanceDAO.addTourInstance(instance)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Instance saved successfully", Toast.LENGTH_SHORT).show();
-                            clearForm();
-                            toggleForm(false);
-                            loadInstances();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to save instance - Check logcat", Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageTourInstancesFragment", "Server returned false");
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            String errorMsg = "Failed to save instance: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                            Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageTourInstancesFragment", "Error saving instance", e);
-                        });
+            viewScope.deliver(instanceRepository.insert(instance),
+                success -> {
+                    if (success) {
+                        Toast.makeText(requireContext(), "Instance saved successfully", Toast.LENGTH_SHORT).show();
+                        clearForm();
+                        toggleForm(false);
+                        loadInstances();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to save instance - Check logcat", Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageTourInstancesFragment", "Server returned false");
                     }
-                    return null;
+                },
+                e -> {
+                    Toast.makeText(requireContext(), "Failed to save instance: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageTourInstancesFragment", "Error saving instance", e);
                 });
         }
     }
@@ -370,25 +309,19 @@ public class ManageTourInstancesFragment extends Fragment {
     }
 
     private void performSearch() {
-        String query = searchField.getText().toString().trim().toLowerCase();
-        if (query.isEmpty()) {
-            adapter.submitList(new ArrayList<>(instancesList));
-            return;
-        }
+        searchPipeline.submit(searchField.getText().toString());
+    }
 
-        List<TourInstance> filteredInstances = new ArrayList<>();
-        for (TourInstance instance : instancesList) {
-            if ((instance.getTourName() != null && instance.getTourName().toLowerCase().contains(query)) ||
+    private boolean matchesSearch(TourInstance instance, String query) {
+        return query.isEmpty() ||
+                (instance.getTourName() != null && instance.getTourName().toLowerCase().contains(query)) ||
                 (instance.getShipName() != null && instance.getShipName().toLowerCase().contains(query)) ||
-                instance.getStartDate().toLowerCase().contains(query)) {
-                filteredInstances.add(instance);
-            }
-        }
-        adapter.submitList(new ArrayList<>(filteredInstances));
+                instance.getStartDate().toLowerCase().contains(query);
     }
 
     private void updateRecyclerView() {
-        adapter.submitList(new ArrayList<>(instancesList));
+        // Re-apply the current search to the reloaded list
+        performSearch();
     }
 
     private void showDatePicker() {
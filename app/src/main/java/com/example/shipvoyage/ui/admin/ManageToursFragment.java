@@ -18,9 +18,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.TourAdapter;
-import com.example.shipvoyage.dao.TourDAO;
 import com.example.shipvoyage.model.Tour;
-import com.example.shipvoyage.util.ThreadPool;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.util.SearchIndex;
+import com.example.shipvoyage.util.SearchPipeline;
+import com.example.shipvoyage.util.ViewScope;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,9 +33,12 @@ public class ManageToursFragment extends Fragment {
     private EditText nameField, fromField, toField, descriptionField, searchField;
     private Button saveBtn, cancelBtn, searchBtn, addToggleBtn;
     private View formContainer;
-    private TourDAO tourDAO;
+    private EntityRepository<Tour> tourRepository;
     private List<Tour> toursList = new ArrayList<>();
+    private final SearchIndex<Tour> tourIndex = new SearchIndex<>(Tour::getId, Tour::getName, Tour::getFrom, Tour::getTo, Tour::getDescription);
     private TourAdapter tourAdapter;
+    private SearchPipeline<Tour> searchPipeline;
+    private ViewScope viewScope;
     private String editingTourId = null;
     private boolean isFormVisible = false;
 
@@ -45,12 +51,20 @@ public class ManageToursFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        tourDAO = new TourDAO(requireContext());
+        tourRepository = Repositories.tours(requireContext());
+        viewScope = ViewScope.of(this);
         initViews(view);
+        searchPipeline = new SearchPipeline<>(SearchPipeline.index(tourIndex), tourAdapter::submitList);
         setupListeners();
         loadTours();
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        searchPipeline.cancel();
+    }
+
     private void initViews(View view) {
         toursRecyclerView = view.findViewById(R.id.toursRecyclerView);
         nameField = view.findViewById(R.id.nameField);
@@ -78,23 +92,14 @@ public class ManageToursFragment extends Fragment {
 
             @Override
             public void onDeleteClick(Tour tour) {
-                tourDAO.deleteById(tour.getId())
-                    .thenAccept(success -> {
-                        if (success && getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Tour deleted", Toast.LENGTH_SHORT).show();
-                                loadTours();
-                            });
-                        }
-                    })
-                    .exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Failed to delete tour", Toast.LENGTH_SHORT).show();
-                            });
+                viewScope.deliver(tourRepository.delete(tour.getId()),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Tour deleted", Toast.LENGTH_SHORT).show();
+                            loadTours();
                         }
-                        return null;
-                    });
+                    },
+                    e -> Toast.makeText(requireContext(), "Failed to delete tour", Toast.LENGTH_SHORT).show());
             }
         });
         toursRecyclerView.setAdapter(tourAdapter);
@@ -117,7 +122,7 @@ public class ManageToursFragment extends Fragment {
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                performSearch();
+                searchPipeline.setQuery(s.toString());
             }
             @Override
             public void afterTextChanged(Editable s) {}
@@ -125,24 +130,14 @@ public class ManageToursFragment extends Fragment {
     }
 
     private void loadTours() {
-        tourDAO.getAll(Tour.class)
-            .thenAccept(tours -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        toursList.clear();
-                        toursList.addAll(tours);
-                        updateRecyclerView();
-                    });
-                }
-            })
-            .exceptionally(e -> {
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> {
-                        Toast.makeText(requireContext(), "Failed to load tours", Toast.LENGTH_SHORT).show();
-                    });
-                }
-                return null;
-            });
+        viewScope.load(tourRepository.getAll(),
+            tours -> {
+                toursList.clear();
+                toursList.addAll(tours);
+                tourIndex.setAll(toursList);
+                updateRecyclerView();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load tours", Toast.LENGTH_SHORT).show());
     }
 
     private void saveTour() {
@@ -168,58 +163,38 @@ public class ManageToursFragment extends Fragment {
         Tour tour = new Tour(tourId, name, from, to, description.isEmpty() ? null : description);
         
         if (editingTourId != null) {
-            tourDAO.updateTour(tourId, tour)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Tour updated successfully", Toast.LENGTH_SHORT).show();
-                            clearForm();
-                            toggleForm(false);
-                            loadTours();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to update tour - Check logcat", Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageToursFragment", "Server returned false");
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            String errorMsg = "Failed to update tour: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                            Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageToursFragment", "Error updating tour", e);
-                        });
+            viewScope.deliver(tourRepository.update(tourId, tour),
+                success -> {
+                    if (success) {
+                        Toast.makeText(requireContext(), "Tour updated successfully", Toast.LENGTH_SHORT).show();
+                        clearForm();
+                        toggleForm(false);
+                        loadTours();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to update tour - Check logcat", Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageToursFragment", "Server returned false");
                     }
-                    return null;
+                },
+                e -> {
+                    Toast.makeText(requireContext(), "Failed to update tour: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageToursFragment", "Error updating tour", e);
                 });
         } else {
-            tourDAO.addTour(tour)
-                .thenAccept(success -> {
-                    if (success && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Tour saved successfully", Toast.LENGTH_SHORT).show();
-                            clearForm();
-                            toggleForm(false);
-                            loadTours();
-                        });
-                    } else if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Failed to save tour - Check logcat", Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageToursFragment", "Server returned false");
-                        });
-                    }
-                })
-                .exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            String errorMsg = "Failed to save tour: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
-                            Toast.makeText(requireContext(), errorMsg, Toast.LENGTH_LONG).show();
-                            android.util.Log.e("ManageToursFragment", "Error saving tour", e);
-                        });
+            viewScope.deliver(tourRepository.insert(tour),
+                success -> {
+                    if (success) {
+                        Toast.makeText(requireContext(), "Tour saved successfully", Toast.LENGTH_SHORT).show();
+                        clearForm();
+                        toggleForm(false);
+                        loadTours();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to save tour - Check logcat", Toast.LENGTH_LONG).show();
+                        android.util.Log.e("ManageToursFragment", "Server returned false");
                     }
-                    return null;
+                },
+                e -> {
+                    Toast.makeText(requireContext(), "Failed to save tour: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    android.util.Log.e("ManageToursFragment", "Error saving tour", e);
                 });
         }
     }
@@ -243,25 +218,11 @@ public class ManageToursFragment extends Fragment {
     }
 
     private void performSearch() {
-        String query = searchField.getText().toString().trim().toLowerCase();
-        if (query.isEmpty()) {
-            tourAdapter.submitList(new ArrayList<>(toursList));
-            return;
-        }
-
-        List<Tour> filteredTours = new ArrayList<>();
-        for (Tour tour : toursList) {
-            if (tour.getName().toLowerCase().contains(query) ||
-                tour.getFrom().toLowerCase().contains(query) ||
-                tour.getTo().toLowerCase().contains(query) ||
-                (tour.getDescription() != null && tour.getDescription().toLowerCase().contains(query))) {
-                filteredTours.add(tour);
-            }
-        }
-        tourAdapter.submitList(new ArrayList<>(filteredTours));
+        searchPipeline.submit(searchField.getText().toString());
     }
 
     private void updateRecyclerView() {
-        tourAdapter.submitList(new ArrayList<>(toursList));
+        // Re-apply the current search to the reloaded list
+        performSearch();
     }
 }
@@ -18,16 +18,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.BookingRoomAdapter;
-import com.example.shipvoyage.dao.BookingDAO;
+import com.example.shipvoyage.dao.AvailabilityIndex;
 import com.example.shipvoyage.dao.RoomDAO;
-import com.example.shipvoyage.model.Booking;
 import com.example.shipvoyage.model.Room;
 import com.example.shipvoyage.model.TourInstance;
+import com.example.shipvoyage.util.ViewScope;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CompletableFuture;
 
 public class RoomSelectionDialog extends DialogFragment {
 
@@ -38,9 +35,9 @@ public class RoomSelectionDialog extends DialogFragment {
 
     private BookingRoomAdapter adapter;
     private RoomDAO roomDAO;
-    private BookingDAO bookingDAO;
     private TourInstance tourInstance;
     private OnRoomsSelectedListener listener;
+    private ViewScope viewScope;
 
     public interface OnRoomsSelectedListener {
         void onRoomsSelected(List<Room> selectedRooms, double totalPrice);
@@ -50,6 +47,7 @@ public class RoomSelectionDialog extends DialogFragment {
         RoomSelectionDialog dialog = new RoomSelectionDialog();
         Bundle args = new Bundle();
         args.putString("tourInstanceId", tourInstance.getId());
+        args.putString("shipId", tourInstance.getShipId());
         args.putString("tourName", tourInstance.getTourName());
         args.putString("shipName", tourInstance.getShipName());
         dialog.setArguments(args);
@@ -93,7 +91,7 @@ public class RoomSelectionDialog extends DialogFragment {
         continueButton = view.findViewById(R.id.continueButton);
 
         roomDAO = new RoomDAO(requireContext());
-        bookingDAO = new BookingDAO(requireContext());
+        viewScope = ViewScope.of(this);
 
         // Set tour instance info
         if (getArguments() != null) {
@@ -103,8 +101,8 @@ public class RoomSelectionDialog extends DialogFragment {
         }
 
         // Setup RecyclerView
-        adapter = new BookingRoomAdapter((selectedRooms, totalPrice) -> {
-            continueButton.setEnabled(!selectedRooms.isEmpty());
+        adapter = new BookingRoomAdapter((selectedCount, totalPrice) -> {
+            continueButton.setEnabled(selectedCount > 0);
         });
         roomsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         roomsRecyclerView.setAdapter(adapter);
@@ -131,48 +129,24 @@ public class RoomSelectionDialog extends DialogFragment {
         if (getArguments() == null) return;
 
         String tourInstanceId = getArguments().getString("tourInstanceId");
-        
-        // Load bookings for this tour instance and rooms in parallel
-        CompletableFuture<List<Booking>> bookingsFuture = bookingDAO.getBookingsByTourInstance(tourInstanceId);
-        CompletableFuture<List<Room>> roomsFuture = roomDAO.getAllRooms();
-        
-        CompletableFuture.allOf(bookingsFuture, roomsFuture).thenAccept(v -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    List<Booking> bookings = bookingsFuture.join();
-                    List<Room> rooms = roomsFuture.join();
-                    
-                    // Get set of booked room IDs for this tour instance
-                    Set<String> bookedRoomIds = new HashSet<>();
-                    if (bookings != null) {
-                        for (Booking booking : bookings) {
-                            if (booking.getStatus() != null && booking.getStatus().equalsIgnoreCase("CANCELLED")) {
-                                continue;
-                            }
-                            bookedRoomIds.add(booking.getRoomId());
-                        }
-                    }
-                    
-                    // Show all available rooms, but disable the ones already booked
-                    List<Room> availableRooms = new java.util.ArrayList<>();
-                    if (rooms != null) {
-                        for (Room room : rooms) {
-                            if (room.isAvailability()) {
-                                availableRooms.add(room);
-                            }
-                        }
-                    }
-                    adapter.setRooms(availableRooms);
-                    adapter.setDisabledRooms(bookedRoomIds);
-                });
-            }
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(getContext(), "Failed to load rooms: " + throwable.getMessage(), Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+        String shipId = getArguments().getString("shipId");
+
+        // Reuse a recent index; our own booking changes keep it current
+        AvailabilityIndex cached = AvailabilityIndex.get(tourInstanceId, AvailabilityIndex.DEFAULT_MAX_AGE_MS);
+        if (cached != null) {
+            adapter.setIndex(cached);
+            return;
+        }
+
+        // The ship's bookable rooms and this instance's bookings in one request
+        viewScope.load(roomDAO.getAvailability(shipId, tourInstanceId),
+            index -> {
+                if (index != null) {
+                    adapter.setIndex(index);
+                } else {
+                    Toast.makeText(getContext(), "Failed to load rooms", Toast.LENGTH_SHORT).show();
+                }
+            },
+            throwable -> Toast.makeText(getContext(), "Failed to load rooms: " + throwable.getMessage(), Toast.LENGTH_SHORT).show());
     }
 }
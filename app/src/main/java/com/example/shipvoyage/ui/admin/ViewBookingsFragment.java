@@ -17,28 +17,28 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.shipvoyage.R;
 import com.example.shipvoyage.adapter.BookingAdapter;
+import com.example.shipvoyage.dao.AvailabilityIndex;
 import com.example.shipvoyage.dao.BookingDAO;
-import com.example.shipvoyage.dao.RoomDAO;
-import com.example.shipvoyage.dao.TourDAO;
-import com.example.shipvoyage.dao.TourInstanceDAO;
-import com.example.shipvoyage.dao.UserDAO;
+import com.example.shipvoyage.dao.EntityIndex;
 import com.example.shipvoyage.model.Booking;
 import com.example.shipvoyage.model.Room;
 import com.example.shipvoyage.model.Tour;
 import com.example.shipvoyage.model.TourInstance;
-import com.example.shipvoyage.model.User;
+import com.example.shipvoyage.repository.EntityRepository;
+import com.example.shipvoyage.repository.Repositories;
+import com.example.shipvoyage.repository.SharedDataset;
+import com.example.shipvoyage.util.ViewScope;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public class ViewBookingsFragment extends Fragment {
@@ -46,15 +46,14 @@ public class ViewBookingsFragment extends Fragment {
     private Spinner tourInstanceSpinner;
     private FloatingActionButton addBookingFab;
     private BookingDAO bookingDAO;
-    private TourDAO tourDAO;
-    private TourInstanceDAO tourInstanceDAO;
-    private UserDAO userDAO;
-    private RoomDAO roomDAO;
-    private List<Booking> bookingsList = new ArrayList<>();
+    private EntityRepository<Booking> bookingRepository;
+    private AdminViewModel viewModel;
+    private SharedDataset<List<Booking>> bookings;
     private List<Tour> toursList = new ArrayList<>();
     private List<TourInstance> instancesList = new ArrayList<>();
-    private Map<String, User> usersMap = new HashMap<>();
+    private final EntityIndex entityIndex = new EntityIndex();
     private BookingAdapter bookingAdapter;
+    private ViewScope viewScope;
 
     @Nullable
     @Override
@@ -67,12 +66,14 @@ public class ViewBookingsFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         
         bookingDAO = new BookingDAO(requireContext());
-        tourDAO = new TourDAO(requireContext());
-        tourInstanceDAO = new TourInstanceDAO(requireContext());
-        userDAO = new UserDAO(requireContext());
-        roomDAO = new RoomDAO(requireContext());
+        bookingRepository = Repositories.bookings(requireContext());
+        // Loaded bookings live in the activity's ViewModel, so coming back to this tab is instant
+        viewModel = new ViewModelProvider(requireActivity()).get(AdminViewModel.class);
+        bookings = viewModel.getBookings();
+        viewScope = ViewScope.of(this);
         
         initViews(view);
+        bookings.getData().observe(getViewLifecycleOwner(), rows -> showBookings());
         loadTours();
     }
 
@@ -104,156 +105,100 @@ public class ViewBookingsFragment extends Fragment {
     }
 
     private void loadTours() {
-        tourDAO.getAllTours().thenAccept(tours -> {
-            if (tours != null && getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
+        viewScope.deliver(viewModel.getTours().refreshIfStale(),
+            tours -> {
+                if (tours != null) {
                     toursList.clear();
                     toursList.addAll(tours);
+                    entityIndex.setTours(toursList);
                     loadInstances();
-                });
-            }
-        }).exceptionally(e -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(requireContext(), "Failed to load tours", Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+                }
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load tours", Toast.LENGTH_SHORT).show());
     }
 
     private void loadInstances() {
-        tourInstanceDAO.getAllTourInstances().thenAccept(instances -> {
-            if (instances != null && getActivity() != null) {
+        viewScope.deliver(viewModel.getTourInstances().refreshIfStale(),
+            instances -> {
+                if (instances == null) {
+                    return;
+                }
                 List<String> instanceNames = new ArrayList<>();
                 instanceNames.add("Select Tour Instance");
                 
+                entityIndex.fillInstances(instances);
+                entityIndex.setInstances(instances);
                 for (TourInstance instance : instances) {
-                    for (Tour tour : toursList) {
-                        if (tour.getId().equals(instance.getTourId())) {
-                            instance.setTourName(tour.getName());
-                            break;
-                        }
-                    }
                     instanceNames.add(instance.getTourName() + " - " + instance.getStartDate());
                 }
                 
-                getActivity().runOnUiThread(() -> {
-                    instancesList.clear();
-                    instancesList.addAll(instances);
-                    
-                    ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, instanceNames);
-                    adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-                    tourInstanceSpinner.setAdapter(adapter);
-                    tourInstanceSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
-                        @Override
-                        public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                            filterBookings();
-                        }
-                        @Override
-                        public void onNothingSelected(AdapterView<?> parent) {}
-                    });
-                    loadBookings();
-                });
-            }
-        }).exceptionally(e -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(requireContext(), "Failed to load instances", Toast.LENGTH_SHORT).show();
+                instancesList.clear();
+                instancesList.addAll(instances);
+                
+                ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, instanceNames);
+                adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                tourInstanceSpinner.setAdapter(adapter);
+                // Come back to the instance that was shown last
+                for (int i = 0; i < instancesList.size(); i++) {
+                    if (instancesList.get(i).getId().equals(viewModel.getBookingsInstanceId())) {
+                        tourInstanceSpinner.setSelection(i + 1, false);
+                        break;
+                    }
+                }
+                tourInstanceSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                        showBookings();
+                    }
+                    @Override
+                    public void onNothingSelected(AdapterView<?> parent) {}
                 });
-            }
-            return null;
-        });
+                loadBookings();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load instances", Toast.LENGTH_SHORT).show());
     }
 
+    /**
+     * Load rooms and bookings from the local mirror, keeping what is loaded while it is
+     * fresh; the list is filtered and joined on the device
+     */
     private void loadBookings() {
-        bookingDAO.getAllBookings().thenAccept(bookings -> {
-            if (bookings != null && getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    bookingsList.clear();
-                    bookingsList.addAll(bookings);
-                    fetchCustomerDataForBookings();
-                });
-            }
-        }).exceptionally(e -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(requireContext(), "Failed to load bookings", Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
-        });
+        CompletableFuture<List<Room>> rooms = viewModel.getRooms().refreshIfStale();
+        CompletableFuture<List<Booking>> loaded = bookings.refreshIfStale();
+        viewScope.deliver(CompletableFuture.allOf(rooms, loaded),
+            done -> {
+                entityIndex.setRooms(rooms.join());
+                showBookings();
+            },
+            e -> Toast.makeText(requireContext(), "Failed to load bookings", Toast.LENGTH_SHORT).show());
     }
 
-    private void fetchCustomerDataForBookings() {
-        if (bookingsList.isEmpty()) {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(this::filterBookings);
-            }
+    /**
+     * Reload after a booking was changed here; other tabs reload when next shown
+     */
+    private void reloadBookings() {
+        viewModel.onDataChanged();
+        loadBookings();
+    }
+
+    /**
+     * Show the active bookings of the selected tour instance (or all instances)
+     * with their room and tour names filled in
+     */
+    private void showBookings() {
+        if (tourInstanceSpinner.getAdapter() == null) {
+            // Instances not loaded yet; loadInstances() shows the list once they are
             return;
         }
-
-        CompletableFuture<List<User>> usersFuture = userDAO.getAllUsers();
-        CompletableFuture<List<Room>> roomsFuture = roomDAO.getAllRooms();
-
-        CompletableFuture.allOf(usersFuture, roomsFuture).thenAccept(v -> {
-            List<User> users = usersFuture.join();
-            List<Room> rooms = roomsFuture.join();
-
-            Map<String, User> usersMap = new HashMap<>();
-            if (users != null) {
-                for (User user : users) {
-                    usersMap.put(user.getId(), user);
-                }
-            }
-
-            Map<String, Room> roomsMap = new HashMap<>();
-            if (rooms != null) {
-                for (Room room : rooms) {
-                    roomsMap.put(room.getId(), room);
-                }
-            }
-
-            // Match bookings with their customer and room data
-            for (Booking booking : bookingsList) {
-                User user = usersMap.get(booking.getUserId());
-                if (user != null) {
-                    booking.setCustomerName(user.getName() != null ? user.getName() : "N/A");
-                    booking.setCustomerEmail(user.getEmail() != null ? user.getEmail() : "N/A");
-                    booking.setCustomerPhone(user.getPhone() != null ? user.getPhone() : "N/A");
-                }
-
-                Room room = roomsMap.get(booking.getRoomId());
-                if (room != null) {
-                    booking.setRoomName(room.getRoomNumber());
-                    booking.setRoomType(room.getType());
-                }
-
-                if (booking.getSelectedRooms() == null || booking.getSelectedRooms().isEmpty()) {
-                    if (room != null) {
-                        List<String> roomNumbers = new ArrayList<>();
-                        roomNumbers.add(room.getRoomNumber());
-                        booking.setSelectedRooms(roomNumbers);
-                    }
-                } else {
-                    List<String> mappedRooms = new ArrayList<>();
-                    for (String selectedRoomId : booking.getSelectedRooms()) {
-                        Room mappedRoom = roomsMap.get(selectedRoomId);
-                        mappedRooms.add(mappedRoom != null ? mappedRoom.getRoomNumber() : selectedRoomId);
-                    }
-                    booking.setSelectedRooms(mappedRooms);
-                }
-            }
-
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(this::filterBookings);
-            }
-        }).exceptionally(e -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(this::filterBookings);
-            }
-            return null;
-        });
+        int selectedPosition = tourInstanceSpinner.getSelectedItemPosition();
+        String instanceId = null;
+        if (selectedPosition > 0 && selectedPosition - 1 < instancesList.size()) {
+            instanceId = instancesList.get(selectedPosition - 1).getId();
+        }
+        viewModel.setBookingsInstanceId(instanceId);
+        List<Booking> active = EntityIndex.activeBookings(bookings.getValue(), instanceId);
+        entityIndex.fillBookings(active);
+        bookingAdapter.submitList(active);
     }
 
     private void cancelBooking(Booking booking) {
@@ -262,25 +207,16 @@ public class ViewBookingsFragment extends Fragment {
                 .setMessage("Are you sure you want to cancel this booking?")
                 .setPositiveButton("Cancel Booking", (dialog, which) -> {
                     booking.setStatus("CANCELLED");
-                    bookingDAO.updateBooking(booking.getId(), booking).thenAccept(success -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                if (success) {
-                                    Toast.makeText(requireContext(), "Booking cancelled", Toast.LENGTH_SHORT).show();
-                                    loadBookings();
-                                } else {
-                                    Toast.makeText(requireContext(), "Failed to cancel booking", Toast.LENGTH_SHORT).show();
-                                }
-                            });
-                        }
-                    }).exceptionally(e -> {
-                        if (getActivity() != null) {
-                            getActivity().runOnUiThread(() -> {
-                                Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                            });
-                        }
-                        return null;
-                    });
+                    viewScope.deliver(updateBooking(booking),
+                        success -> {
+                            if (success) {
+                                Toast.makeText(requireContext(), "Booking cancelled", Toast.LENGTH_SHORT).show();
+                                reloadBookings();
+                            } else {
+                                Toast.makeText(requireContext(), "Failed to cancel booking", Toast.LENGTH_SHORT).show();
+                            }
+                        },
+                        e -> Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
                 })
                 .setNegativeButton("Keep", (dialog, which) -> dialog.dismiss())
                 .show();
@@ -397,26 +333,17 @@ public class ViewBookingsFragment extends Fragment {
                 booking.setPaidAmount(advance);
                 booking.setDueAmount(Math.max(0, due));
 
-                bookingDAO.updateBooking(booking.getId(), booking).thenAccept(success -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            if (success) {
-                                Toast.makeText(requireContext(), "Booking updated", Toast.LENGTH_SHORT).show();
-                                dialog.dismiss();
-                                loadBookings();
-                            } else {
-                                Toast.makeText(requireContext(), "Failed to update booking", Toast.LENGTH_SHORT).show();
-                            }
-                        });
-                    }
-                }).exceptionally(e -> {
-                    if (getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                        });
-                    }
-                    return null;
-                });
+                viewScope.deliver(updateBooking(booking),
+                    success -> {
+                        if (success) {
+                            Toast.makeText(requireContext(), "Booking updated", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                            reloadBookings();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update booking", Toast.LENGTH_SHORT).show();
+                        }
+                    },
+                    e -> Toast.makeText(requireContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show());
             } catch (NumberFormatException e) {
                 Toast.makeText(requireContext(), "Invalid number format", Toast.LENGTH_SHORT).show();
             }
@@ -443,34 +370,6 @@ public class ViewBookingsFragment extends Fragment {
                 .show();
     }
 
-    private void filterBookings() {
-        int selectedPosition = tourInstanceSpinner.getSelectedItemPosition();
-        if (instancesList == null || instancesList.isEmpty()) {
-            bookingAdapter.submitList(new ArrayList<>(bookingsList));
-            return;
-        }
-        
-        if (selectedPosition == 0) {
-            List<Booking> filteredList = new ArrayList<>();
-            for (Booking booking : bookingsList) {
-                if (booking.getStatus() == null || !booking.getStatus().equalsIgnoreCase("CANCELLED")) {
-                    filteredList.add(booking);
-                }
-            }
-            bookingAdapter.submitList(filteredList);
-        } else if (selectedPosition - 1 < instancesList.size()) {
-            TourInstance selectedInstance = instancesList.get(selectedPosition - 1);
-            List<Booking> filteredList = new ArrayList<>();
-            for (Booking booking : bookingsList) {
-                if (booking.getTourInstanceId().equals(selectedInstance.getId()) &&
-                        (booking.getStatus() == null || !booking.getStatus().equalsIgnoreCase("CANCELLED"))) {
-                    filteredList.add(booking);
-                }
-            }
-            bookingAdapter.submitList(filteredList);
-        }
-    }
-
     private void showTourInstanceSelectionDialog() {
         if (instancesList.isEmpty()) {
             Toast.makeText(requireContext(), "No tour instances available", Toast.LENGTH_SHORT).show();
@@ -626,7 +525,7 @@ public class ViewBookingsFragment extends Fragment {
                     childCount
                 );
 
-                saveBooking(booking, dialog);
+                saveBooking(booking, selectedRooms, dialog);
             } catch (NumberFormatException e) {
                 Toast.makeText(requireContext(), "Invalid number format", Toast.LENGTH_SHORT).show();
             }
@@ -635,26 +534,36 @@ public class ViewBookingsFragment extends Fragment {
         dialog.show();
     }
 
-    private void saveBooking(Booking booking, AlertDialog dialog) {
-        bookingDAO.addBooking(booking).thenAccept(success -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    if (success) {
-                        Toast.makeText(requireContext(), "Booking saved successfully", Toast.LENGTH_SHORT).show();
-                        dialog.dismiss();
-                        loadBookings();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to save booking", Toast.LENGTH_SHORT).show();
-                    }
-                });
-            }
-        }).exceptionally(throwable -> {
-            if (getActivity() != null) {
-                getActivity().runOnUiThread(() -> {
-                    Toast.makeText(requireContext(), "Error: " + throwable.getMessage(), Toast.LENGTH_SHORT).show();
-                });
-            }
-            return null;
+    private void saveBooking(Booking booking, List<Room> rooms, AlertDialog dialog) {
+        List<String> roomIds = new ArrayList<>();
+        for (Room room : rooms) {
+            roomIds.add(room.getId());
+        }
+        viewScope.deliver(bookingDAO.bookRooms(booking.getTourInstanceId(), roomIds, booking),
+            result -> {
+                if (result == null) {
+                    Toast.makeText(requireContext(), "Failed to save booking", Toast.LENGTH_SHORT).show();
+                } else if (!result.getConflicts().isEmpty()) {
+                    Toast.makeText(requireContext(), "Already booked: "
+                            + String.join(", ", result.getConflictingRoomNumbers(rooms))
+                            + ". Nothing was saved.", Toast.LENGTH_LONG).show();
+                } else {
+                    Toast.makeText(requireContext(), "Booking saved successfully", Toast.LENGTH_SHORT).show();
+                    dialog.dismiss();
+                    // book_rooms() wrote on the server; pull the new rows into the mirror first
+                    viewScope.deliver(bookingRepository.refresh(), rows -> reloadBookings(), null);
+                }
+            },
+            throwable -> Toast.makeText(requireContext(), "Error: " + throwable.getMessage(), Toast.LENGTH_SHORT).show());
+    }
+
+    /**
+     * Save a booking on the server and in the mirror
+     */
+    private CompletableFuture<Boolean> updateBooking(Booking booking) {
+        return bookingRepository.update(booking.getId(), booking).thenApply(success -> {
+            if (success) AvailabilityIndex.onBookingSaved(booking);
+            return success;
         });
     }
 }
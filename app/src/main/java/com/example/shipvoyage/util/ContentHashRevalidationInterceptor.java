@@ -0,0 +1,123 @@
+package com.example.shipvoyage.util;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Network interceptor that lets the OkHttp cache store PostgREST reads of reference tables.
+ * PostgREST sends no ETag or Last-Modified, so OkHttp would never store its responses.
+ * For a successful GET without validators this adds an ETag holding a hash of the body,
+ * and Cache-Control: no-cache so every later request revalidates. When the cache sends
+ * that ETag back in If-None-Match and the new body hashes the same, the response is
+ * turned into a 304 and the cache serves its stored copy.
+ * The hash is taken after the body has been downloaded, so this saves no bytes on the
+ * wire: every read still transfers the whole table. A match only spares rewriting the
+ * cache entry. Saving the transfer would need real validators from the server.
+ * Responses that already carry validators are passed through untouched.
+ * Only whole-table reads of the given reference tables are cached; every other GET
+ * (user rows, paged lists, large tables) gets Cache-Control: no-store and streams
+ * through without being buffered, so nothing private is written to disk.
+ */
+public class ContentHashRevalidationInterceptor implements Interceptor {
+    /**
+     * Bodies larger than this are not hashed and so not cached
+     */
+    public static final long MAX_HASHED_BYTES = 256L * 1024;
+
+    private static final String ETAG_PREFIX = "W/\"sha256-";
+
+    private final Set<String> cacheableTables;
+    private final AtomicLong hashedCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+
+    /**
+     * @param cacheableTables tables whose reads may be stored, e.g. ships and tours
+     */
+    public ContentHashRevalidationInterceptor(Collection<String> cacheableTables) {
+        this.cacheableTables = new HashSet<>(cacheableTables);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+        if (!isCacheable(request)) {
+            return response.newBuilder()
+                    .header("Cache-Control", "no-store")
+                    .build();
+        }
+        if (response.code() != 200
+                || response.header("ETag") != null || response.header("Last-Modified") != null) {
+            return response;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        BufferedSource source = body.source();
+        if (source.request(MAX_HASHED_BYTES + 1)) {
+            // Too large to buffer; leave it uncached
+            return response;
+        }
+        String etag = ETAG_PREFIX + source.getBuffer().sha256().hex() + "\"";
+        hashedCount.incrementAndGet();
+
+        if (etag.equals(request.header("If-None-Match"))) {
+            unchangedCount.incrementAndGet();
+            body.close();
+            return response.newBuilder()
+                    .code(304)
+                    .message("Not Modified")
+                    .header("ETag", etag)
+                    .header("Cache-Control", "no-cache")
+                    .body(ResponseBody.create(new byte[0], null))
+                    .build();
+        }
+        return response.newBuilder()
+                .header("ETag", etag)
+                .header("Cache-Control", "no-cache")
+                .build();
+    }
+
+    /**
+     * A whole-table read of a reference table. Paged requests and anything that could
+     * select a password are never cached.
+     */
+    private boolean isCacheable(Request request) {
+        List<String> segments = request.url().pathSegments();
+        if (segments.isEmpty() || !cacheableTables.contains(segments.get(segments.size() - 1))) {
+            return false;
+        }
+        String select = request.url().queryParameter("select");
+        return request.url().queryParameter("limit") == null
+                && request.header("Range") == null
+                && (select == null || !select.contains("password"));
+    }
+
+    /**
+     * Responses given a content-hash ETag
+     */
+    public long getHashedCount() {
+        return hashedCount.get();
+    }
+
+    /**
+     * Revalidations answered with a 304 because the body hash matched
+     */
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.shipvoyage.util;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Gzips request bodies above a size threshold, e.g. batch inserts and upserts.
+ * The compressed body is buffered so it goes out with a Content-Length.
+ */
+public class GzipRequestInterceptor implements Interceptor {
+    private final long minBytes;
+
+    public GzipRequestInterceptor(long minBytes) {
+        this.minBytes = minBytes;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body == null || request.header("Content-Encoding") != null || body.contentLength() < minBytes) {
+            return chain.proceed(request);
+        }
+        Buffer compressed = new Buffer();
+        try (BufferedSink gzip = Okio.buffer(new GzipSink(compressed))) {
+            body.writeTo(gzip);
+        }
+        MediaType contentType = body.contentType();
+        RequestBody gzipped = RequestBody.create(compressed.readByteString(), contentType);
+        return chain.proceed(request.newBuilder()
+                .header("Content-Encoding", "gzip")
+                .method(request.method(), gzipped)
+                .build());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.shipvoyage.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Substring search over a list of rows using a trigram index.
+ * Each row's searchable fields are lower-cased once when it is added; every trigram
+ * maps to a BitSet of the rows containing it. A query intersects the BitSets of its
+ * trigrams and confirms the few candidates with contains(), so it does not touch
+ * rows that cannot match. Queries shorter than three characters scan the
+ * pre-normalized text instead.
+ * Results keep the order rows were added in. Rows are replaced in place by id.
+ */
+public class SearchIndex<T> {
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Function<T, String> idOf;
+    private final List<Function<T, String>> fields;
+
+    private final List<T> rows = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    /**
+     * @param idOf unique key of a row, used to replace or remove it
+     * @param fields searchable fields; null values are skipped
+     */
+    @SafeVarargs
+    public SearchIndex(Function<T, String> idOf, Function<T, String>... fields) {
+        this.idOf = idOf;
+        this.fields = Arrays.asList(fields);
+    }
+
+    /**
+     * Replace the whole index with these rows
+     */
+    public synchronized void setAll(Collection<T> list) {
+        rows.clear();
+        texts.clear();
+        slots.clear();
+        postings.clear();
+        live.clear();
+        putAll(list);
+    }
+
+    public synchronized void putAll(Collection<T> list) {
+        for (T row : list) {
+            put(row);
+        }
+    }
+
+    /**
+     * Add a row, or replace the row with the same id keeping its position
+     */
+    public synchronized void put(T row) {
+        String id = idOf.apply(row);
+        String text = normalize(row);
+        Integer slot = slots.get(id);
+        if (slot != null) {
+            unindex(slot);
+            rows.set(slot, row);
+            texts.set(slot, text);
+        } else {
+            slot = rows.size();
+            rows.add(row);
+            texts.add(text);
+            slots.put(id, slot);
+        }
+        final int position = slot;
+        live.set(position);
+        forEachGram(text, gram -> postings.computeIfAbsent(gram, g -> new BitSet()).set(position));
+    }
+
+    public synchronized void remove(String id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) return;
+        unindex(slot);
+        rows.set(slot, null);
+        texts.set(slot, null);
+        live.clear(slot);
+        // Compact once most slots are dead so scans stay proportional to live rows
+        if (live.cardinality() < rows.size() / 2) {
+            List<T> remaining = rows();
+            setAll(remaining);
+        }
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * All rows, in order
+     */
+    public synchronized List<T> rows() {
+        List<T> result = new ArrayList<>(slots.size());
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+            result.add(rows.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Rows where any field contains the query, ignoring case; all rows for an empty query
+     */
+    public synchronized List<T> search(String query) {
+        String q = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (q.isEmpty()) {
+            return rows();
+        }
+        BitSet candidates;
+        if (q.length() < 3) {
+            candidates = live;
+        } else {
+            candidates = null;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                BitSet posting = postings.get(gram(q, i));
+                if (posting == null) {
+                    return new ArrayList<>();
+                }
+                if (candidates == null) {
+                    candidates = (BitSet) posting.clone();
+                } else {
+                    candidates.and(posting);
+                }
+                if (candidates.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+        }
+        List<T> result = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (texts.get(i).contains(q)) {
+                result.add(rows.get(i));
+            }
+        }
+        return result;
+    }
+
+    private void unindex(int slot) {
+        forEachGram(texts.get(slot), gram -> {
+            BitSet posting = postings.get(gram);
+            if (posting != null) {
+                posting.clear(slot);
+                if (posting.isEmpty()) postings.remove(gram);
+            }
+        });
+    }
+
+    private String normalize(T row) {
+        StringBuilder text = new StringBuilder();
+        for (Function<T, String> field : fields) {
+            String value = field.apply(row);
+            if (value != null) {
+                text.append(value.toLowerCase(Locale.ROOT)).append(FIELD_SEPARATOR);
+            }
+        }
+        return text.toString();
+    }
+
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    private static void forEachGram(String text, GramConsumer consumer) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            consumer.accept(gram(text, i));
+        }
+    }
+
+    private static long gram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+}
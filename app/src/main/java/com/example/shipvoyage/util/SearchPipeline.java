@@ -0,0 +1,137 @@
+package com.example.shipvoyage.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Search-as-you-type for list screens.
+ * Keystrokes are debounced; each search runs off the main thread and supersedes the
+ * previous one, whose future is cancelled and whose result is dropped even if it
+ * arrives later. Only the latest result reaches the sink (usually adapter::submitList),
+ * on the main thread. Call from the main thread only.
+ */
+public class SearchPipeline<T> {
+    public static final long DEFAULT_DEBOUNCE_MS = 250;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Search<T> search;
+    private final Consumer<List<T>> sink;
+    private final long debounceMs;
+    private final Runnable debounced = this::dispatch;
+    private String query = "";
+    private int generation;
+    private CompletableFuture<List<T>> inFlight;
+    private Consumer<Throwable> onError;
+
+    /**
+     * Produces the results for one query; may hit the network
+     */
+    public interface Search<T> {
+        CompletableFuture<List<T>> run(String query);
+    }
+
+    public SearchPipeline(Search<T> search, Consumer<List<T>> sink) {
+        this(search, sink, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public SearchPipeline(Search<T> search, Consumer<List<T>> sink, long debounceMs) {
+        this.search = search;
+        this.sink = sink;
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Search over an in-memory list. The list is copied on the calling (main) thread
+     * and filtered on the shared pool. The matcher gets the query trimmed and
+     * lower-cased, including when it is empty.
+     */
+    public static <T> Search<T> filter(Supplier<List<T>> source, BiPredicate<T, String> matcher) {
+        return query -> {
+            List<T> snapshot = new ArrayList<>(source.get());
+            String normalized = query.trim().toLowerCase();
+            return ThreadPool.supplyAsync(() -> {
+                List<T> matches = new ArrayList<>();
+                for (T row : snapshot) {
+                    if (matcher.test(row, normalized)) {
+                        matches.add(row);
+                    }
+                }
+                return matches;
+            });
+        };
+    }
+
+    /**
+     * Search a prebuilt SearchIndex on the shared pool
+     */
+    public static <T> Search<T> index(SearchIndex<T> index) {
+        return query -> ThreadPool.supplyAsync(() -> index.search(query));
+    }
+
+    /**
+     * Called on the main thread when the latest search fails; superseded failures are ignored
+     */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Schedule a search once typing pauses for the debounce interval
+     */
+    public void setQuery(String query) {
+        this.query = query != null ? query : "";
+        mainHandler.removeCallbacks(debounced);
+        mainHandler.postDelayed(debounced, debounceMs);
+    }
+
+    /**
+     * Search now, e.g. from a search button or after the data was reloaded
+     */
+    public void submit(String query) {
+        this.query = query != null ? query : "";
+        mainHandler.removeCallbacks(debounced);
+        dispatch();
+    }
+
+    /**
+     * Re-run the current query
+     */
+    public void refresh() {
+        submit(query);
+    }
+
+    /**
+     * Drop any pending or running search; call when the view goes away
+     */
+    public void cancel() {
+        mainHandler.removeCallbacks(debounced);
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    private void dispatch() {
+        cancel();
+        final int current = generation;
+        CompletableFuture<List<T>> future = search.run(query);
+        inFlight = future;
+        future.whenComplete((results, error) -> mainHandler.post(() -> {
+            if (current != generation) return;
+            inFlight = null;
+            if (error != null) {
+                if (onError != null) onError.accept(error);
+            } else if (results != null) {
+                sink.accept(results);
+            }
+        }));
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.shipvoyage.util;
 
 import android.content.Context;
+import android.util.Log;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.brotli.BrotliInterceptor;
 
 /**
  * Supabase Client Configuration
@@ -15,11 +25,24 @@ import okhttp3.OkHttpClient;
  * Uses OkHttp for HTTP requests and Gson for JSON serialization
  */
 public class SupabaseClient {
+    private static final String TAG = "SupabaseClient";
     private static SupabaseClient instance;
+    private static TransportConfig transportConfig = new TransportConfig();
     private final String supabaseUrl;
     private final String supabaseAnonKey;
     private final OkHttpClient httpClient;
     private final Gson gson;
+    private final Cache cache;
+    private final ContentHashRevalidationInterceptor revalidationInterceptor;
+
+    // On-disk HTTP cache for reference table reads, revalidated on every use.
+    // Revalidation downloads the body again; see ContentHashRevalidationInterceptor.
+    // Other tables, users in particular, are never written to disk.
+    public static final List<String> CACHED_TABLES = Arrays.asList("ships", "tours", "room_types");
+    private static final String CACHE_DIR = "supabase_http_ref";
+    // Earlier cache that also held user rows; deleted on startup
+    private static final String LEGACY_CACHE_DIR = "supabase_http";
+    private static final long CACHE_SIZE_BYTES = 20L * 1024 * 1024;
 
     // Supabase credentials
     private static final String SUPABASE_URL = "https://dgyonbbyifaqsffbzdpk.supabase.co";
@@ -29,19 +52,30 @@ public class SupabaseClient {
         this.supabaseUrl = SUPABASE_URL;
         this.supabaseAnonKey = SUPABASE_ANON_KEY;
 
-        // Create OkHttpClient with timeouts
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
+        File cacheDir = context != null ? context.getCacheDir() : null;
+        this.cache = cacheDir != null ? new Cache(new File(cacheDir, CACHE_DIR), CACHE_SIZE_BYTES) : null;
+        this.revalidationInterceptor = new ContentHashRevalidationInterceptor(CACHED_TABLES);
+        if (cacheDir != null) {
+            File legacy = new File(cacheDir, LEGACY_CACHE_DIR);
+            if (legacy.exists()) {
+                ThreadPool.supplyAsync(() -> deleteRecursively(legacy));
+            }
+        }
+
+        OkHttpClient.Builder builder = newTransportBuilder(transportConfig)
+                .cache(cache)
                 .addInterceptor(chain -> {
                     okhttp3.Request.Builder requestBuilder = chain.request().newBuilder();
                     requestBuilder.addHeader("apikey", this.supabaseAnonKey);
                     requestBuilder.addHeader("Authorization", "Bearer " + this.supabaseAnonKey);
                     requestBuilder.addHeader("Content-Type", "application/json");
-                    requestBuilder.addHeader("Prefer", "return=representation");
+                    if (chain.request().header("Prefer") == null) {
+                        requestBuilder.addHeader("Prefer", "return=representation");
+                    }
                     return chain.proceed(requestBuilder.build());
-                })
+                });
+        this.httpClient = builder
+                .addNetworkInterceptor(revalidationInterceptor)
                 .build();
 
         // Create Gson instance with custom date format
@@ -50,6 +84,56 @@ public class SupabaseClient {
                 .create();
     }
 
+    /**
+     * A client builder with the transport part of config applied: connection pool,
+     * protocols, timeouts and compression. Adds no credentials or cache.
+     */
+    public static OkHttpClient.Builder newTransportBuilder(TransportConfig config) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveSeconds(), TimeUnit.SECONDS))
+                .protocols(config.isHttp2()
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1))
+                .connectTimeout(config.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeoutMs(), TimeUnit.MILLISECONDS)
+                .callTimeout(config.getCallTimeoutMs(), TimeUnit.MILLISECONDS);
+        if (config.getCompressRequestsOverBytes() >= 0) {
+            builder.addInterceptor(new GzipRequestInterceptor(config.getCompressRequestsOverBytes()));
+        }
+        if (config.isBrotli()) {
+            // Asks for br,gzip and decodes either; replaces OkHttp's built-in gzip handling
+            builder.addInterceptor(BrotliInterceptor.INSTANCE);
+        }
+        return builder;
+    }
+
+    private static boolean deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        return file.delete();
+    }
+
+    /**
+     * Set the HTTP transport settings.
+     * Only takes effect before the first getInstance() call.
+     */
+    public static synchronized void configure(TransportConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config must not be null");
+        }
+        if (instance != null) {
+            Log.w(TAG, "configure() ignored: client already created");
+            return;
+        }
+        transportConfig = config;
+    }
+
     /**
      * Get singleton instance of SupabaseClient
      */
@@ -87,4 +171,100 @@ public class SupabaseClient {
     public String getAnonKey() {
         return supabaseAnonKey;
     }
+
+    /**
+     * Open connections in the pool, idle or in use
+     */
+    public int getConnectionCount() {
+        return httpClient.connectionPool().connectionCount();
+    }
+
+    public int getIdleConnectionCount() {
+        return httpClient.connectionPool().idleConnectionCount();
+    }
+
+    /**
+     * Snapshot of the HTTP cache counters since startup
+     */
+    public CacheStats getCacheStats() {
+        if (cache == null) {
+            return new CacheStats(0, 0, 0, 0, 0, 0);
+        }
+        long size;
+        try {
+            size = cache.size();
+        } catch (IOException e) {
+            size = -1;
+        }
+        return new CacheStats(cache.requestCount(), cache.networkCount(), cache.hitCount(),
+                revalidationInterceptor.getUnchangedCount(), size, cache.maxSize());
+    }
+
+    /**
+     * Drop every cached response, e.g. on logout
+     */
+    public void clearCache() {
+        if (cache == null) return;
+        try {
+            cache.evictAll();
+        } catch (IOException e) {
+            Log.e(TAG, "Error clearing HTTP cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * HTTP cache counters.
+     * hitCount includes revalidated responses (304s); hashMatchCount is the part of those
+     * confirmed by content hash because the server sent no validators of its own. Those
+     * bodies were still downloaded in full, so hits here do not mean bytes saved.
+     */
+    public static class CacheStats {
+        private final long requestCount;
+        private final long networkCount;
+        private final long hitCount;
+        private final long hashMatchCount;
+        private final long sizeBytes;
+        private final long maxSizeBytes;
+
+        CacheStats(long requestCount, long networkCount, long hitCount, long hashMatchCount,
+                   long sizeBytes, long maxSizeBytes) {
+            this.requestCount = requestCount;
+            this.networkCount = networkCount;
+            this.hitCount = hitCount;
+            this.hashMatchCount = hashMatchCount;
+            this.sizeBytes = sizeBytes;
+            this.maxSizeBytes = maxSizeBytes;
+        }
+
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        public long getNetworkCount() {
+            return networkCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getHashMatchCount() {
+            return hashMatchCount;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public long getMaxSizeBytes() {
+            return maxSizeBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStats{requests=" + requestCount + ", network=" + networkCount
+                    + ", hits=" + hitCount + ", hashMatches=" + hashMatchCount
+                    + ", size=" + sizeBytes + "/" + maxSizeBytes + "}";
+        }
+    }
 }
@@ -1,12 +1,159 @@
-package com.example.shipvoyage.util;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-public class ThreadPool {
-    private static final ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
-    public static ExecutorService getExecutor() {
-        return executor;
-    }
-    public static void shutdown() {
-        executor.shutdown();
-    }
-}
\ No newline at end of file
+package com.example.shipvoyage.util;
+
+import android.util.Log;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared bounded I/O dispatcher used by every DAO.
+ * Call configure() before the first DAO call to change the limits.
+ * When the queue is full new work is rejected with RejectedExecutionException
+ * (never run on the caller, which is usually the main thread).
+ */
+public class ThreadPool {
+    private static final String TAG = "ThreadPool";
+
+    public static final int DEFAULT_MAX_CONCURRENCY = Math.max(4, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private static int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private static ThreadPoolExecutor executor;
+    private static final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Set the concurrency limit and queue capacity.
+     * Only takes effect before the executor is created (or after shutdown()).
+     */
+    public static synchronized void configure(int maxThreads, int queueSize) {
+        if (maxThreads < 1 || queueSize < 1) {
+            throw new IllegalArgumentException("maxThreads and queueSize must be positive");
+        }
+        if (executor != null && !executor.isShutdown()) {
+            Log.w(TAG, "configure() ignored: executor already running");
+            return;
+        }
+        maxConcurrency = maxThreads;
+        queueCapacity = queueSize;
+    }
+
+    /**
+     * Get the shared executor, creating it on first use
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null || executor.isShutdown()) {
+            executor = createExecutor();
+        }
+        return executor;
+    }
+
+    /**
+     * Run a task on the shared executor.
+     * A full queue fails the returned future instead of throwing on the caller.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, getExecutor());
+        } catch (RejectedExecutionException e) {
+            Log.e(TAG, "Task rejected: " + e.getMessage());
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "dao-io-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        RejectedExecutionHandler rejectionPolicy = (task, pool) -> {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("DAO queue full (" + queueCapacity + " pending)");
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                factory, rejectionPolicy);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Number of tasks waiting for a free thread
+     */
+    public static synchronized int getQueueSize() {
+        return executor != null ? executor.getQueue().size() : 0;
+    }
+
+    /**
+     * Number of threads currently running a task
+     */
+    public static synchronized int getActiveCount() {
+        return executor != null ? executor.getActiveCount() : 0;
+    }
+
+    /**
+     * Number of live worker threads
+     */
+    public static synchronized int getPoolSize() {
+        return executor != null ? executor.getPoolSize() : 0;
+    }
+
+    /**
+     * Total tasks completed since the executor was created
+     */
+    public static synchronized long getCompletedTaskCount() {
+        return executor != null ? executor.getCompletedTaskCount() : 0;
+    }
+
+    /**
+     * Tasks rejected because the queue was full
+     */
+    public static long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public static int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Stop accepting work and wait briefly for in-flight requests to finish
+     */
+    public static void shutdown() {
+        ThreadPoolExecutor pool;
+        synchronized (ThreadPool.class) {
+            pool = executor;
+            executor = null;
+        }
+        if (pool == null) return;
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.shipvoyage.util;
+
+/**
+ * HTTP transport settings for SupabaseClient.
+ * Pass to SupabaseClient.configure() before the first DAO is created.
+ */
+public class TransportConfig {
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 8;
+    public static final long DEFAULT_KEEP_ALIVE_SECONDS = 300;
+    public static final long DEFAULT_CONNECT_TIMEOUT_MS = 15_000;
+    public static final long DEFAULT_READ_TIMEOUT_MS = 30_000;
+    public static final long DEFAULT_WRITE_TIMEOUT_MS = 30_000;
+    public static final long DEFAULT_CALL_TIMEOUT_MS = 0;
+
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private long keepAliveSeconds = DEFAULT_KEEP_ALIVE_SECONDS;
+    private boolean http2 = true;
+    private boolean brotli = true;
+    private long compressRequestsOverBytes = -1;
+    private long connectTimeoutMs = DEFAULT_CONNECT_TIMEOUT_MS;
+    private long readTimeoutMs = DEFAULT_READ_TIMEOUT_MS;
+    private long writeTimeoutMs = DEFAULT_WRITE_TIMEOUT_MS;
+    private long callTimeoutMs = DEFAULT_CALL_TIMEOUT_MS;
+
+    /**
+     * Idle connections kept open, and how long each may stay idle
+     */
+    public TransportConfig setConnectionPool(int maxIdleConnections, long keepAliveSeconds) {
+        if (maxIdleConnections < 0 || keepAliveSeconds <= 0) {
+            throw new IllegalArgumentException("maxIdleConnections must be >= 0 and keepAliveSeconds positive");
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveSeconds = keepAliveSeconds;
+        return this;
+    }
+
+    /**
+     * Offer HTTP/2 so parallel calls share one multiplexed connection;
+     * when false only HTTP/1.1 is used
+     */
+    public TransportConfig setHttp2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    /**
+     * Accept Brotli as well as gzip responses
+     */
+    public TransportConfig setBrotli(boolean brotli) {
+        this.brotli = brotli;
+        return this;
+    }
+
+    /**
+     * Gzip insert/upsert/update bodies larger than this many bytes; -1 disables.
+     * Only enable when the gateway in front of PostgREST decodes Content-Encoding: gzip.
+     */
+    public TransportConfig setCompressRequestsOver(long bytes) {
+        this.compressRequestsOverBytes = bytes;
+        return this;
+    }
+
+    /**
+     * Timeouts in milliseconds; 0 means none. callTimeout bounds the whole call,
+     * including redirects and retries.
+     */
+    public TransportConfig setTimeouts(long connectMs, long readMs, long writeMs, long callMs) {
+        if (connectMs < 0 || readMs < 0 || writeMs < 0 || callMs < 0) {
+            throw new IllegalArgumentException("timeouts must not be negative");
+        }
+        this.connectTimeoutMs = connectMs;
+        this.readTimeoutMs = readMs;
+        this.writeTimeoutMs = writeMs;
+        this.callTimeoutMs = callMs;
+        return this;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public boolean isBrotli() {
+        return brotli;
+    }
+
+    public long getCompressRequestsOverBytes() {
+        return compressRequestsOverBytes;
+    }
+
+    public long getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public long getWriteTimeoutMs() {
+        return writeTimeoutMs;
+    }
+
+    public long getCallTimeoutMs() {
+        return callTimeoutMs;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.shipvoyage.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Delivers DAO results to a fragment's view on the main thread, and only while
+ * that view exists. When the view is destroyed, reads started through load() are
+ * cancelled (a read still queued on the DAO executor never runs) and every pending
+ * callback is dropped, so no lambda keeps a stale fragment alive or touches its views.
+ * Create one in onViewCreated with ViewScope.of(this).
+ */
+public class ViewScope {
+    private static final String TAG = "ViewScope";
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Set<Task<?>> tasks = new HashSet<>();
+    private boolean destroyed;
+
+    /**
+     * Scope bound to the fragment's current view; call from onViewCreated or later
+     */
+    public static ViewScope of(Fragment fragment) {
+        return of(fragment.getViewLifecycleOwner());
+    }
+
+    public static ViewScope of(LifecycleOwner owner) {
+        ViewScope scope = new ViewScope();
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            scope.cancelAll();
+            return scope;
+        }
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    scope.cancelAll();
+                }
+            }
+        });
+        return scope;
+    }
+
+    /**
+     * Deliver a read's result, cancelling the read if the view goes away first.
+     * onError gets the underlying cause; pass null to just log it.
+     */
+    public <T> void load(CompletableFuture<T> future, Consumer<T> onResult, Consumer<Throwable> onError) {
+        track(future, onResult, onError, true);
+    }
+
+    /**
+     * Deliver a result if the view is still there, without ever cancelling the work:
+     * for writes, where dropping a queued insert or delete would lose the change, and
+     * for loads shared beyond this view, such as ViewModel datasets.
+     */
+    public <T> void deliver(CompletableFuture<T> future, Consumer<T> onResult, Consumer<Throwable> onError) {
+        track(future, onResult, onError, false);
+    }
+
+    /**
+     * Run on the main thread while the view exists, e.g. progress from a background thread
+     */
+    public void post(Runnable action) {
+        mainHandler.post(() -> {
+            if (isActive()) {
+                action.run();
+            }
+        });
+    }
+
+    public synchronized boolean isActive() {
+        return !destroyed;
+    }
+
+    /**
+     * Cancel outstanding reads and drop all pending callbacks; called when the view is destroyed
+     */
+    public void cancelAll() {
+        Task<?>[] pending;
+        synchronized (this) {
+            destroyed = true;
+            pending = tasks.toArray(new Task<?>[0]);
+            tasks.clear();
+        }
+        for (Task<?> task : pending) {
+            task.cancel();
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return tasks.size();
+    }
+
+    private <T> void track(CompletableFuture<T> future, Consumer<T> onResult, Consumer<Throwable> onError, boolean cancellable) {
+        Task<T> task = new Task<>(future, onResult, onError, cancellable);
+        synchronized (this) {
+            if (destroyed) {
+                task.cancel();
+                return;
+            }
+            tasks.add(task);
+        }
+        future.whenComplete((value, error) -> mainHandler.post(() -> finish(task, value, error)));
+    }
+
+    private <T> void finish(Task<T> task, T value, Throwable error) {
+        synchronized (this) {
+            if (!tasks.remove(task)) {
+                return;
+            }
+        }
+        Throwable cause = unwrap(error);
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        if (cause != null) {
+            if (task.onError != null) {
+                task.onError.accept(cause);
+            } else {
+                Log.e(TAG, "Request failed: " + cause.getMessage(), cause);
+            }
+        } else if (task.onResult != null) {
+            task.onResult.accept(value);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * One pending result; the callbacks are released on cancel so they cannot pin the fragment
+     */
+    private static final class Task<T> {
+        final CompletableFuture<T> future;
+        final boolean cancellable;
+        volatile Consumer<T> onResult;
+        volatile Consumer<Throwable> onError;
+
+        Task(CompletableFuture<T> future, Consumer<T> onResult, Consumer<Throwable> onError, boolean cancellable) {
+            this.future = future;
+            this.onResult = onResult;
+            this.onError = onError;
+            this.cancellable = cancellable;
+        }
+
+        void cancel() {
+            onResult = null;
+            onError = null;
+            if (cancellable) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AvailabilityIndexTest {
+    private static final String INSTANCE = "ti-1";
+
+    private final List<Room> rooms = Arrays.asList(
+            new Room("r1", "s1", "101", "Deluxe", true),
+            new Room("r2", "s1", "102", "Deluxe", true),
+            new Room("r3", "s1", "201", "Suite", true));
+
+    @After
+    public void tearDown() {
+        AvailabilityIndex.invalidate(INSTANCE);
+    }
+
+    private static Booking booking(String id, String roomId, String status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setTourInstanceId(INSTANCE);
+        booking.setRoomId(roomId);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    @Test
+    public void build_marksBookedRoomsAndSkipsCancelled() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms, Arrays.asList(
+                booking("b1", "r1", "confirmed"),
+                booking("b2", "r3", "cancelled")));
+
+        assertFalse(index.isAvailable("r1"));
+        assertTrue(index.isAvailable("r2"));
+        assertTrue(index.isAvailable("r3"));
+        assertEquals(2, index.freeCount());
+        assertEquals(1, index.freeCount("deluxe"));
+        assertEquals(1, index.freeCount(" Suite "));
+        assertEquals(0, index.freeCount("Economy"));
+        assertFalse(index.isAvailable("unknown"));
+    }
+
+    @Test
+    public void findFree_returnsRoomsOfTypeInOrder() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms, Collections.emptyList());
+
+        List<Room> free = index.findFree("Deluxe", 5);
+
+        assertEquals(2, free.size());
+        assertEquals("r1", free.get(0).getId());
+        assertEquals("r2", free.get(1).getId());
+        assertEquals(1, index.findFree("Deluxe", 1).size());
+    }
+
+    @Test
+    public void roomStaysBookedWhileAnyBookingHoldsIt() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms, Arrays.asList(
+                booking("b1", "r1", "confirmed"),
+                booking("b2", "r1", "confirmed")));
+
+        assertTrue(index.apply(booking("b1", "r1", "cancelled")));
+        assertFalse("Cancelling one of two bookings freed the room", index.isAvailable("r1"));
+
+        assertTrue(index.apply(booking("b2", "r1", "cancelled")));
+        assertTrue(index.isAvailable("r1"));
+    }
+
+    @Test
+    public void result_doesNotDependOnOrder() {
+        List<Booking> changes = new ArrayList<>(Arrays.asList(
+                booking("b1", "r1", "confirmed"),
+                booking("b2", "r1", "confirmed"),
+                booking("b1", "r1", "cancelled")));
+        AvailabilityIndex forward = AvailabilityIndex.build(INSTANCE, rooms, changes);
+        Collections.reverse(changes);
+        AvailabilityIndex reversed = AvailabilityIndex.build(INSTANCE, rooms, changes);
+
+        assertFalse(forward.isAvailable("r1"));
+        assertFalse(reversed.isAvailable("r1"));
+    }
+
+    @Test
+    public void movedBooking_releasesPreviousRoom() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms,
+                Collections.singletonList(booking("b1", "r1", "confirmed")));
+
+        index.apply(booking("b1", "r2", "confirmed"));
+
+        assertTrue(index.isAvailable("r1"));
+        assertFalse(index.isAvailable("r2"));
+    }
+
+    @Test
+    public void unknownCancellationOnPinnedRoom_invalidatesIndex() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms, Collections.emptyList());
+        AvailabilityIndex.onRoomsBooked(INSTANCE, Collections.singletonList("r3"));
+        assertFalse(index.isAvailable("r3"));
+
+        // The index cannot tell whether this was the only hold on the room
+        AvailabilityIndex.onBookingDeleted(booking("b9", "r3", "confirmed"));
+
+        assertNull(AvailabilityIndex.get(INSTANCE, AvailabilityIndex.DEFAULT_MAX_AGE_MS));
+    }
+
+    @Test
+    public void onBookingSaved_updatesLoadedIndex() {
+        AvailabilityIndex.build(INSTANCE, rooms, Collections.emptyList());
+
+        AvailabilityIndex.onBookingSaved(booking("b1", "r2", "confirmed"));
+
+        AvailabilityIndex index = AvailabilityIndex.get(INSTANCE, AvailabilityIndex.DEFAULT_MAX_AGE_MS);
+        assertNotNull(index);
+        assertFalse(index.isAvailable("r2"));
+    }
+
+    @Test
+    public void selection_skipsBookedRooms() {
+        AvailabilityIndex index = AvailabilityIndex.build(INSTANCE, rooms,
+                Collections.singletonList(booking("b1", "r1", "confirmed")));
+        AvailabilityIndex.Selection selection = index.newSelection();
+
+        assertFalse(selection.set(index.indexOf("r1"), true));
+        assertTrue(selection.set(index.indexOf("r3"), true));
+        assertTrue(selection.set(index.indexOf("r2"), true));
+        assertFalse(selection.set(index.indexOf("r2"), true));
+
+        assertEquals(2, selection.count());
+        assertEquals(Arrays.asList("r2", "r3"), selection.getRoomIds());
+        assertTrue(selection.set(index.indexOf("r2"), false));
+        assertEquals(Collections.singletonList("r3"), selection.getRoomIds());
+    }
+}
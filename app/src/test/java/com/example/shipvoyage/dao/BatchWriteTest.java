@@ -0,0 +1,91 @@
+package com.example.shipvoyage.dao;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class BatchWriteTest {
+    private MockWebServer server;
+    private MockServerDAO dao;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        // Like PostgREST, reject the whole chunk if any row in it is invalid
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().readUtf8();
+                return body.contains("\"bad\"")
+                        ? new MockResponse().setResponseCode(400).setBody("{\"code\":\"23502\"}")
+                        : new MockResponse().setResponseCode(201);
+            }
+        });
+        server.start();
+        dao = new MockServerDAO(server, "rooms");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void insertAll_validRowsTakeOneRequestPerChunk() {
+        BatchResult result = dao.insertAll(rows(1200, -1)).join();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(1200, result.getSucceededCount());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void insertAll_isolatesTheRejectedRow() {
+        BatchResult result = dao.insertAll(rows(8, 5)).join();
+
+        assertEquals(7, result.getSucceededCount());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(5, result.getFailures().get(0).getIndex());
+        assertEquals(400, result.getFailures().get(0).getCode());
+    }
+
+    @Test
+    public void insertAll_invalidChunkDoesNotCostARequestPerRow() {
+        List<JsonObject> rows = rows(BaseSupabaseDAO.DEFAULT_BATCH_SIZE, -1);
+        for (JsonObject row : rows) {
+            row.addProperty("status", "bad");
+        }
+
+        BatchResult result = dao.insertAll(rows).join();
+
+        assertEquals(0, result.getSucceededCount());
+        assertEquals(rows.size(), result.getFailures().size());
+        assertTrue("Sent " + server.getRequestCount() + " requests", server.getRequestCount() <= 20);
+    }
+
+    /**
+     * count rows, the one at badIndex (if any) rejected by the server
+     */
+    private static List<JsonObject> rows(int count, int badIndex) {
+        List<JsonObject> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonObject row = new JsonObject();
+            row.addProperty("id", "r" + i);
+            row.addProperty("status", i == badIndex ? "bad" : "ok");
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Room;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BookRoomsResultTest {
+    private final Gson gson = new Gson();
+
+    private static final List<Room> REQUESTED = Arrays.asList(
+            new Room("r1", "s1", "101", "Deluxe", true),
+            new Room("r2", "s1", "102", "Deluxe", true),
+            new Room("r3", "s1", "103", "Suite", true));
+
+    @Test
+    public void conflictingRoomNumbers_followRequestOrder() {
+        BookRoomsResult result = gson.fromJson("{\"booking_ids\":[],\"conflicts\":[\"r3\",\"r1\"]}", BookRoomsResult.class);
+
+        assertEquals(Arrays.asList("101", "103"), result.getConflictingRoomNumbers(REQUESTED));
+        assertFalse(result.isBooked());
+    }
+
+    @Test
+    public void conflictingRoomNumbers_emptyWhenBooked() {
+        BookRoomsResult result = gson.fromJson("{\"booking_ids\":[\"b1\",\"b2\"],\"conflicts\":[]}", BookRoomsResult.class);
+
+        assertEquals(Collections.emptyList(), result.getConflictingRoomNumbers(REQUESTED));
+        assertTrue(result.isBooked());
+    }
+
+    @Test
+    public void conflictingRoomNumbers_toleratesMissingConflicts() {
+        BookRoomsResult result = gson.fromJson("{\"booking_ids\":[\"b1\"],\"conflicts\":null}", BookRoomsResult.class);
+
+        assertEquals(Collections.emptyList(), result.getConflictingRoomNumbers(REQUESTED));
+    }
+
+    @Test
+    public void conflictingRoomNumbers_ignoresRoomsNotRequested() {
+        BookRoomsResult result = gson.fromJson("{\"conflicts\":[\"r2\",\"other\"]}", BookRoomsResult.class);
+
+        assertEquals(Collections.singletonList("102"), result.getConflictingRoomNumbers(REQUESTED));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.shipvoyage.dao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class CountTest {
+    private MockWebServer server;
+    private MockServerDAO dao;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        dao = new MockServerDAO(server, "bookings");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void count_readsTotalFromContentRange() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Range", "*/42"));
+
+        assertEquals(Long.valueOf(42), dao.count("status=neq.cancelled").join());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("HEAD", request.getMethod());
+        assertEquals("count=exact", request.getHeader("Prefer"));
+    }
+
+    @Test
+    public void count_emptyTableIsZero() {
+        server.enqueue(new MockResponse().setHeader("Content-Range", "*/0"));
+        assertEquals(Long.valueOf(0), dao.count(null).join());
+    }
+
+    @Test
+    public void count_errorIsMinusOneNotZero() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertEquals(Long.valueOf(-1), dao.count("role=eq.passenger").join());
+    }
+
+    @Test
+    public void count_missingTotalIsMinusOne() {
+        server.enqueue(new MockResponse());
+        assertEquals(Long.valueOf(-1), dao.count("role=eq.admin").join());
+    }
+}
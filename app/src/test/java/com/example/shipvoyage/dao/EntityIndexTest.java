@@ -0,0 +1,69 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Booking;
+import com.example.shipvoyage.model.Room;
+import com.example.shipvoyage.model.Tour;
+import com.example.shipvoyage.model.TourInstance;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EntityIndexTest {
+
+    private static Booking booking(String id, String instanceId, String roomId, String status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setTourInstanceId(instanceId);
+        booking.setRoomId(roomId);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    @Test
+    public void activeBookings_keepsOneInstanceAndSkipsCancelled() {
+        List<Booking> all = Arrays.asList(
+                booking("b1", "ti1", "r1", null),
+                booking("b2", "ti1", "r2", "CANCELLED"),
+                booking("b3", "ti2", "r1", "confirmed"),
+                booking("b4", "ti1", "r3", "confirmed"));
+
+        List<Booking> active = EntityIndex.activeBookings(all, "ti1");
+
+        assertEquals(2, active.size());
+        assertEquals("b1", active.get(0).getId());
+        assertEquals("b4", active.get(1).getId());
+        assertEquals(3, EntityIndex.activeBookings(all, null).size());
+        assertTrue(EntityIndex.activeBookings(null, "ti1").isEmpty());
+    }
+
+    @Test
+    public void fillBookings_joinsRoomAndTourLocally() {
+        TourInstance instance = new TourInstance("ti1", "t1", "s1", "2026-11-01", "2026-11-04");
+        EntityIndex index = new EntityIndex()
+                .setTours(Collections.singletonList(new Tour("t1", "Sundarbans Explorer", "Khulna", "Katka", "")))
+                .setRooms(Arrays.asList(
+                        new Room("r1", "s1", "101", "Deluxe", true),
+                        new Room("r2", "s1", "102", "Suite", true)));
+        index.fillInstances(Collections.singletonList(instance));
+        index.setInstances(Collections.singletonList(instance));
+
+        Booking single = booking("b1", "ti1", "r1", null);
+        Booking multi = booking("b2", "ti1", "r1", null);
+        multi.setSelectedRooms(Arrays.asList("r1", "r2", "gone"));
+        index.fillBookings(Arrays.asList(single, multi));
+
+        assertEquals("101", single.getRoomName());
+        assertEquals("Deluxe", single.getRoomType());
+        assertEquals(Collections.singletonList("101"), single.getSelectedRooms());
+        assertEquals("Sundarbans Explorer", single.getTourName());
+        assertEquals("Khulna", single.getFromLocation());
+        assertEquals("2026-11-01", single.getDepartureDate());
+        assertEquals("2026-11-04", single.getReturnDate());
+        assertEquals(Arrays.asList("101", "102", "gone"), multi.getSelectedRooms());
+    }
+}
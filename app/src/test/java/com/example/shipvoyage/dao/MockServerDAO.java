@@ -0,0 +1,38 @@
+package com.example.shipvoyage.dao;
+
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * DAO for JVM tests that reads from a MockWebServer instead of Supabase
+ */
+public class MockServerDAO extends BaseSupabaseDAO {
+    private final String serverUrl;
+
+    public MockServerDAO(String tableName) {
+        this(null, tableName);
+    }
+
+    /**
+     * DAO whose table URLs point at server, so the inherited methods can be called
+     */
+    public MockServerDAO(MockWebServer server, String tableName) {
+        super(null, tableName);
+        this.serverUrl = server != null ? server.url("/rest/v1").toString() : null;
+    }
+
+    @Override
+    protected String tableUrl(String filter, String... columns) {
+        String url = super.tableUrl(filter, columns);
+        return serverUrl != null ? serverUrl + url.substring(baseUrl.length()) : url;
+    }
+
+    /**
+     * Stream every row at url through the DAO executor, like streamQuery()
+     */
+    public <T> CompletableFuture<Integer> stream(HttpUrl url, Class<T> clazz, RowCallback<T> callback) {
+        return async(() -> fetchRows(url.toString(), clazz, callback));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.shipvoyage.dao;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class PageIteratorTest {
+    private static final int TOTAL = 5;
+
+    private final List<Integer> requestedOffsets = new ArrayList<>();
+
+    private CompletableFuture<Page<Integer>> rows(int offset, int limit) {
+        requestedOffsets.add(offset);
+        List<Integer> items = new ArrayList<>();
+        for (int i = offset; i < Math.min(offset + limit, TOTAL); i++) {
+            items.add(i);
+        }
+        return CompletableFuture.completedFuture(new Page<>(items, offset, limit, TOTAL));
+    }
+
+    @Test
+    public void walksEveryPageOnce() {
+        PageIterator<Integer> pages = new PageIterator<>(this::rows, 2);
+        List<Integer> all = new ArrayList<>();
+        while (pages.hasNext()) {
+            all.addAll(pages.next().join().getItems());
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4), all);
+        assertEquals(List.of(0, 2, 4), requestedOffsets);
+    }
+
+    @Test
+    public void failedPage_isRetriedAtSameOffset() {
+        boolean[] failed = {false};
+        PageIterator<Integer> pages = new PageIterator<>((offset, limit) -> {
+            if (offset == 2 && !failed[0]) {
+                failed[0] = true;
+                requestedOffsets.add(offset);
+                CompletableFuture<Page<Integer>> error = new CompletableFuture<>();
+                error.completeExceptionally(new CompletionException(new IOException("HTTP 500")));
+                return error;
+            }
+            return rows(offset, limit);
+        }, 2);
+
+        assertEquals(List.of(0, 1), pages.next().join().getItems());
+        try {
+            pages.next().join();
+            fail("Expected the failed page to fail next()");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // A failure is not the end of the data
+        assertTrue(pages.hasNext());
+        assertEquals(List.of(2, 3), pages.next().join().getItems());
+        assertEquals(List.of(4), pages.next().join().getItems());
+        assertFalse(pages.hasNext());
+        assertEquals(List.of(0, 2, 2, 4), requestedOffsets);
+    }
+
+    @Test
+    public void cancel_dropsPrefetchAndStops() {
+        CompletableFuture<Page<Integer>> prefetch = new CompletableFuture<>();
+        PageIterator<Integer> pages = new PageIterator<>((offset, limit) ->
+                offset == 0 ? rows(offset, limit) : prefetch, 2);
+
+        pages.next().join();
+        pages.cancel();
+
+        assertTrue(prefetch.isCancelled());
+        assertFalse(pages.hasNext());
+    }
+}
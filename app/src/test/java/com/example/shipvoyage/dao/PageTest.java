@@ -0,0 +1,41 @@
+package com.example.shipvoyage.dao;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class PageTest {
+
+    @Test
+    public void parseTotal_readsTotalAfterSlash() {
+        assertEquals(3573, Page.parseTotal("0-24/3573"));
+        assertEquals(0, Page.parseTotal("*/0"));
+        assertEquals(12, Page.parseTotal(" 10-11/12 "));
+    }
+
+    @Test
+    public void parseTotal_unknownTotalIsMinusOne() {
+        assertEquals(-1, Page.parseTotal(null));
+        assertEquals(-1, Page.parseTotal("0-24/*"));
+        assertEquals(-1, Page.parseTotal("0-24/"));
+        assertEquals(-1, Page.parseTotal("0-24"));
+        assertEquals(-1, Page.parseTotal("0-24/abc"));
+    }
+
+    @Test
+    public void hasMore_usesTotalWhenKnown() {
+        assertTrue(new Page<>(Arrays.asList(1, 2), 0, 2, 3).hasMore());
+        assertFalse(new Page<>(Arrays.asList(3), 2, 2, 3).hasMore());
+        assertEquals(2, new Page<>(Arrays.asList(1, 2), 0, 2, 3).getNextOffset());
+    }
+
+    @Test
+    public void hasMore_withoutTotalStopsOnShortPage() {
+        assertTrue(new Page<>(Arrays.asList(1, 2), 0, 2, -1).hasMore());
+        assertFalse(new Page<>(Arrays.asList(1), 0, 2, -1).hasMore());
+        assertFalse(new Page<Integer>(Collections.emptyList(), 0, 2, -1).hasMore());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.shipvoyage.dao;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+    private final SingleFlight flights = new SingleFlight();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CompletableFuture<String> pendingLoad(CompletableFuture<String> load) {
+        loads.incrementAndGet();
+        return load;
+    }
+
+    @Test
+    public void concurrentCallers_shareOneLoad() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.run("GET ships", () -> pendingLoad(load));
+        CompletableFuture<String> second = flights.run("GET ships", () -> pendingLoad(load));
+        load.complete("rows");
+
+        assertEquals("rows", first.join());
+        assertEquals("rows", second.join());
+        assertEquals(1, loads.get());
+        assertEquals(1, flights.getStartedCount());
+        assertEquals(1, flights.getSharedCount());
+        assertEquals(0, flights.getInFlightCount());
+    }
+
+    @Test
+    public void completedLoad_isNotCached() {
+        flights.run("GET ships", () -> pendingLoad(CompletableFuture.completedFuture("old"))).join();
+
+        String value = flights.run("GET ships", () -> pendingLoad(CompletableFuture.completedFuture("new"))).join();
+
+        assertEquals("new", value);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void differentKeys_loadSeparately() {
+        flights.run("GET ships", () -> pendingLoad(new CompletableFuture<>()));
+        flights.run("GET tours", () -> pendingLoad(new CompletableFuture<>()));
+
+        assertEquals(2, loads.get());
+        assertEquals(2, flights.getInFlightCount());
+    }
+
+    @Test
+    public void cancellingOneCaller_keepsLoadForOthers() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.run("GET ships", () -> pendingLoad(load));
+        CompletableFuture<String> second = flights.run("GET ships", () -> pendingLoad(load));
+
+        first.cancel(false);
+        load.complete("rows");
+
+        assertFalse(load.isCancelled());
+        assertEquals("rows", second.join());
+        assertEquals(0, flights.getAbandonedCount());
+    }
+
+    @Test
+    public void cancellingEveryCaller_cancelsLoad() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.run("GET ships", () -> pendingLoad(load));
+        CompletableFuture<String> second = flights.run("GET ships", () -> pendingLoad(load));
+
+        first.cancel(false);
+        second.cancel(false);
+
+        assertTrue(load.isCancelled());
+        assertEquals(1, flights.getAbandonedCount());
+        // The next caller starts a fresh load instead of joining the cancelled one
+        CompletableFuture<String> next = new CompletableFuture<>();
+        flights.run("GET ships", () -> pendingLoad(next));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void forgetAll_makesLaterCallersLoadAgain() {
+        CompletableFuture<String> beforeWrite = new CompletableFuture<>();
+        CompletableFuture<String> waiting = flights.run("GET ships", () -> pendingLoad(beforeWrite));
+
+        flights.forgetAll();
+        CompletableFuture<String> afterWrite = new CompletableFuture<>();
+        CompletableFuture<String> fresh = flights.run("GET ships", () -> pendingLoad(afterWrite));
+        beforeWrite.complete("old");
+        afterWrite.complete("new");
+
+        assertEquals("old", waiting.join());
+        assertEquals("new", fresh.join());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void failedLoad_failsEveryCallerAndIsForgotten() {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        CompletableFuture<String> first = flights.run("GET ships", () -> pendingLoad(load));
+        CompletableFuture<String> second = flights.run("GET ships", () -> pendingLoad(load));
+
+        load.completeExceptionally(new IllegalStateException("HTTP 500"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, flights.getInFlightCount());
+    }
+}
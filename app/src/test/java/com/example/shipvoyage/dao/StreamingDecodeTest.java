@@ -0,0 +1,81 @@
+package com.example.shipvoyage.dao;
+
+import com.example.shipvoyage.model.Booking;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class StreamingDecodeTest {
+    private MockWebServer server;
+    private MockServerDAO dao;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        dao = new MockServerDAO("bookings");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void rowsAreHandedOverInOrder() {
+        server.enqueue(new MockResponse().setBody("[{\"id\":\"b1\",\"room_id\":\"r1\",\"adult_count\":2,\"status\":\"confirmed\"},"
+                + "{\"id\":\"b2\",\"room_id\":\"r2\",\"total_payment\":1500.5}]"));
+        List<Booking> rows = new ArrayList<>();
+
+        int count = dao.stream(server.url("/bookings"), Booking.class, rows::add).join();
+
+        assertEquals(2, count);
+        assertEquals("b1", rows.get(0).getId());
+        assertEquals("r1", rows.get(0).getRoomId());
+        assertEquals(2, rows.get(0).getAdultCount());
+        assertEquals("b2", rows.get(1).getId());
+        assertEquals(1500.5, rows.get(1).getTotalPayment(), 0.0);
+    }
+
+    @Test
+    public void emptyArray_returnsZero() {
+        server.enqueue(new MockResponse().setBody("[]"));
+        assertEquals(Integer.valueOf(0), dao.stream(server.url("/bookings"), Booking.class, row -> fail()).join());
+    }
+
+    @Test
+    public void errorResponse_returnsMinusOne() {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"message\":\"boom\"}"));
+        assertEquals(Integer.valueOf(-1), dao.stream(server.url("/bookings"), Booking.class, row -> fail()).join());
+    }
+
+    @Test
+    public void truncatedBody_returnsMinusOne() {
+        server.enqueue(new MockResponse().setBody("[{\"id\":\"b1\"},{\"id\":"));
+        assertEquals(Integer.valueOf(-1), dao.stream(server.url("/bookings"), Booking.class, row -> { }).join());
+    }
+
+    @Test
+    public void getAll_failureIsAnErrorNotAnEmptyList() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        MockServerDAO bookings = new MockServerDAO(server, "bookings");
+
+        try {
+            bookings.getAll(Booking.class).join();
+            fail("A failed load must not complete normally");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
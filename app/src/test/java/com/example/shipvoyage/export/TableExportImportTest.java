@@ -0,0 +1,181 @@
+package com.example.shipvoyage.export;
+
+import com.example.shipvoyage.dao.MockServerDAO;
+import com.example.shipvoyage.dao.Page;
+import com.example.shipvoyage.dao.PageIterator;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class TableExportImportTest {
+    private static final String[] COLUMNS = {"id", "name", "phone", "total_payment", "status"};
+    private static final int PAGE_SIZE = 3;
+
+    private MockWebServer server;
+    private final List<JsonObject> inserted = new ArrayList<>();
+    private final List<JsonObject> rows = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        // Accepts every row except those named "reject", like a constraint violation
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                JsonArray body = JsonParser.parseString(request.getBody().readUtf8()).getAsJsonArray();
+                for (JsonElement row : body) {
+                    if ("reject".equals(row.getAsJsonObject().get("name").getAsString())) {
+                        return new MockResponse().setResponseCode(409).setBody("{\"message\":\"duplicate key\"}");
+                    }
+                }
+                synchronized (inserted) {
+                    for (JsonElement row : body) {
+                        inserted.add(row.getAsJsonObject());
+                    }
+                }
+                return new MockResponse().setResponseCode(201);
+            }
+        });
+        server.start();
+
+        rows.add(row("b1", "Rahim Uddin", "01711000001", 12500.5, "confirmed"));
+        rows.add(row("b2", "Karim, \"KK\" Ahmed", "01811000002", 0, "pending"));
+        rows.add(row("b3", "Fatema\nBegum", null, 300, "confirmed"));
+        rows.add(row("b4", "নুসরাত জাহান", "01911000004", 7000, "cancelled"));
+        rows.add(row("b5", "Tanvir", "", 1, "confirmed"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private static JsonObject row(String id, String name, String phone, double total, String status) {
+        JsonObject row = new JsonObject();
+        row.addProperty("id", id);
+        row.addProperty("name", name);
+        if (phone != null) {
+            row.addProperty("phone", phone);
+        }
+        row.addProperty("total_payment", total);
+        row.addProperty("status", status);
+        return row;
+    }
+
+    private TableExporter exporter() {
+        return new TableExporter(() -> new PageIterator<>((offset, limit) -> {
+            List<JsonObject> page = new ArrayList<>(rows.subList(offset, Math.min(rows.size(), offset + limit)));
+            return CompletableFuture.completedFuture(new Page<>(page, offset, limit, rows.size()));
+        }, PAGE_SIZE), COLUMNS);
+    }
+
+    private byte[] export(TableExporter.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(rows.size(), exporter().writeTo(out, format, null));
+        return out.toByteArray();
+    }
+
+    private ImportResult importBack(byte[] data, TableExporter.Format format) throws IOException {
+        return new TableImporter(new MockServerDAO(server, "bookings"))
+                .setChunkSize(2)
+                .readFrom(new ByteArrayInputStream(data), format, null);
+    }
+
+    @Test
+    public void csv_roundTripsEveryField() throws Exception {
+        byte[] csv = export(TableExporter.Format.CSV);
+        assertTrue(new String(csv, StandardCharsets.UTF_8).startsWith("id,name,phone,total_payment,status\r\n"));
+
+        ImportResult result = importBack(csv, TableExporter.Format.CSV);
+
+        assertTrue(result.toString(), result.isSuccessful());
+        assertEquals(rows.size(), result.getImportedCount());
+        assertEquals(rows.size(), inserted.size());
+        for (int i = 0; i < rows.size(); i++) {
+            for (String column : COLUMNS) {
+                JsonElement expected = rows.get(i).get(column);
+                JsonElement actual = inserted.get(i).get(column);
+                if (expected == null || expected.getAsString().isEmpty()) {
+                    // Empty CSV fields are left out so the column gets its default
+                    assertNull(column, actual);
+                } else {
+                    assertEquals(column, expected.getAsString(), actual.getAsString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ndjson_roundTripsRowsExactly() throws Exception {
+        ImportResult result = importBack(export(TableExporter.Format.NDJSON), TableExporter.Format.NDJSON);
+
+        assertTrue(result.toString(), result.isSuccessful());
+        assertEquals(rows, inserted);
+    }
+
+    @Test
+    public void rejectedRows_areReportedWithTheirLine() throws Exception {
+        rows.set(2, row("b3", "reject", null, 1, "confirmed"));
+        String ndjson = new String(export(TableExporter.Format.NDJSON), StandardCharsets.UTF_8)
+                + "not json\n";
+
+        ImportResult result = importBack(ndjson.getBytes(StandardCharsets.UTF_8), TableExporter.Format.NDJSON);
+
+        assertEquals(4, result.getImportedCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(3, result.getFailures().get(0).getLine());
+        assertTrue(result.getFailures().get(0).getMessage().startsWith("HTTP 409"));
+        assertEquals(6, result.getFailures().get(1).getLine());
+    }
+
+    @Test
+    public void csv_wrongFieldCountIsRejected() throws Exception {
+        String csv = "id,name\r\nb1,Rahim\r\nb2\r\nb3,Karim\r\n";
+
+        ImportResult result = importBack(csv.getBytes(StandardCharsets.UTF_8), TableExporter.Format.CSV);
+
+        assertEquals(2, result.getImportedCount());
+        assertEquals(1, result.getFailedCount());
+        assertEquals(3, result.getFailures().get(0).getLine());
+    }
+
+    @Test
+    public void failedPage_failsExportInsteadOfTruncating() {
+        TableExporter exporter = new TableExporter(() -> new PageIterator<>((offset, limit) -> {
+            if (offset > 0) {
+                CompletableFuture<Page<JsonObject>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new CompletionException(new IOException("HTTP 500")));
+                return failed;
+            }
+            return CompletableFuture.completedFuture(new Page<>(rows.subList(0, PAGE_SIZE), 0, PAGE_SIZE, rows.size()));
+        }, PAGE_SIZE), COLUMNS);
+
+        try {
+            exporter.writeTo(new ByteArrayOutputStream(), TableExporter.Format.CSV, null);
+            fail("Expected the export to fail");
+        } catch (IOException e) {
+            assertEquals("HTTP 500", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.shipvoyage.export;
+
+import android.graphics.Paint;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextMeasureCacheTest {
+
+    @Test
+    public void uniqueStrings_doNotGrowCachePastLimit() {
+        TextMeasureCache measures = new TextMeasureCache(new Paint[]{new Paint(), new Paint()});
+
+        for (int i = 0; i < 10_000; i++) {
+            measures.width(0, "Passenger " + i);
+            measures.width(1, "0171" + i);
+        }
+
+        assertEquals(2 * TextMeasureCache.MAX_ENTRIES_PER_PAINT, measures.size());
+    }
+
+    @Test
+    public void repeatedStrings_shareOneEntry() {
+        TextMeasureCache measures = new TextMeasureCache(new Paint[]{new Paint()});
+
+        float first = measures.width(0, "Deluxe Couple");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first, measures.width(0, "Deluxe Couple"), 0f);
+        }
+
+        assertEquals(1, measures.size());
+    }
+}
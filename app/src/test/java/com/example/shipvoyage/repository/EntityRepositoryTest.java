@@ -0,0 +1,148 @@
+package com.example.shipvoyage.repository;
+
+import com.example.shipvoyage.dao.MockServerDAO;
+import com.example.shipvoyage.dao.TombstoneDAO;
+import com.example.shipvoyage.model.Ship;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class EntityRepositoryTest {
+    private static final String SHIPS = "[{\"id\":\"s1\",\"name\":\"MV Sundarban\",\"capacity\":120}]";
+
+    private MockWebServer server;
+    private MemoryLocalStore local;
+    private EntityRepository<Ship> repository;
+    private MockResponse deltaResponse;
+    private final AtomicInteger deltaRequests = new AtomicInteger();
+    private final AtomicInteger fullRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().contains("/deleted_rows")) {
+                    return new MockResponse().setBody("[]");
+                }
+                if (request.getPath().contains("updated_at")) {
+                    deltaRequests.incrementAndGet();
+                    return deltaResponse;
+                }
+                fullRequests.incrementAndGet();
+                return new MockResponse().setBody(SHIPS);
+            }
+        });
+        server.start();
+
+        MockServerDAO ships = new MockServerDAO(server, "ships");
+        local = new MemoryLocalStore();
+        repository = new EntityRepository<>(ships, local, new Gson(), Ship.class);
+        repository.setSyncEngine(new SyncEngine(ships, new ServerTombstoneDAO(server), local));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void failedSync_keepsDeltaSyncForNextRefresh() {
+        deltaResponse = new MockResponse().setResponseCode(503);
+
+        assertTrue(repository.refresh().join().isEmpty());
+        repository.refresh().join();
+
+        assertEquals(2, deltaRequests.get());
+        assertEquals(0, fullRequests.get());
+    }
+
+    @Test
+    public void missingUpdatedAt_fallsBackToFullRefreshForGood() {
+        deltaResponse = new MockResponse().setResponseCode(400)
+                .setBody("{\"code\":\"42703\",\"message\":\"column ships.updated_at does not exist\"}");
+
+        List<Ship> rows = repository.refresh().join();
+        repository.refresh().join();
+
+        assertEquals(1, rows.size());
+        assertEquals("MV Sundarban", rows.get(0).getName());
+        assertEquals(1, deltaRequests.get());
+        assertEquals(2, fullRequests.get());
+        assertEquals(1, local.readAll("ships").size());
+    }
+
+    @Test
+    public void sync_mirrorsRowsAndWatermark() {
+        deltaResponse = new MockResponse()
+                .setBody("[{\"id\":\"s1\",\"name\":\"MV Sundarban\",\"updated_at\":\"2026-10-18T09:30:00\"}]");
+
+        assertEquals(1, repository.refresh().join().size());
+        assertEquals("2026-10-18T09:30:00", local.getWatermark("ships"));
+    }
+
+    @Test
+    public void getAll_countsMirrorHitsAndMisses() {
+        deltaResponse = new MockResponse().setBody(SHIPS);
+
+        assertEquals(1, repository.getAll().join().size());
+        assertEquals(1, repository.getAll().join().size());
+        assertEquals("s1", repository.getById("s1").join().getId());
+
+        assertEquals(1, repository.getMissCount());
+        assertEquals(2, repository.getHitCount());
+        assertEquals(1, repository.getRefreshCount());
+    }
+
+    @Test
+    public void getAll_refreshesOnlyOnceTheIntervalHasPassed() {
+        deltaResponse = new MockResponse().setBody(SHIPS);
+        repository.setRefreshInterval(1, TimeUnit.HOURS);
+        repository.getAll().join();
+        repository.getAll().join();
+        assertEquals(1, repository.getRefreshCount());
+
+        repository.setRefreshInterval(0, TimeUnit.MILLISECONDS);
+        repository.getAll().join();
+        assertEquals(2, repository.getRefreshCount());
+    }
+
+    @Test
+    public void refreshInterval_dependsOnTable() {
+        assertEquals(Repositories.REFERENCE_REFRESH_INTERVAL_MS, Repositories.refreshIntervalMs("ships"));
+        assertEquals(Repositories.REFERENCE_REFRESH_INTERVAL_MS, Repositories.refreshIntervalMs("room_types"));
+        assertEquals(Repositories.ROOM_REFRESH_INTERVAL_MS, Repositories.refreshIntervalMs("rooms"));
+        assertEquals(EntityRepository.DEFAULT_REFRESH_INTERVAL_MS, Repositories.refreshIntervalMs("bookings"));
+    }
+
+    /**
+     * Tombstones read from the test server
+     */
+    private static final class ServerTombstoneDAO extends TombstoneDAO {
+        private final String serverUrl;
+
+        ServerTombstoneDAO(MockWebServer server) {
+            super(null);
+            serverUrl = server.url("/rest/v1").toString();
+        }
+
+        @Override
+        protected String tableUrl(String filter, String... columns) {
+            return serverUrl + super.tableUrl(filter, columns).substring(baseUrl.length());
+        }
+    }
+}
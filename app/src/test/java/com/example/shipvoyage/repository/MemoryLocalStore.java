@@ -0,0 +1,88 @@
+package com.example.shipvoyage.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LocalStore kept in maps instead of SQLite, for JVM tests
+ */
+public class MemoryLocalStore extends LocalStore {
+    private static final String TOMBSTONE_SUFFIX = ":deleted";
+
+    private final Map<String, Map<String, String>> tables = new HashMap<>();
+    private final Map<String, String> syncState = new HashMap<>();
+
+    public MemoryLocalStore() {
+        super(null);
+    }
+
+    private synchronized Map<String, String> table(String table) {
+        return tables.computeIfAbsent(table, name -> new LinkedHashMap<>());
+    }
+
+    @Override
+    public synchronized List<String> readAll(String table) {
+        return new ArrayList<>(table(table).values());
+    }
+
+    @Override
+    public synchronized String read(String table, String id) {
+        return table(table).get(id);
+    }
+
+    @Override
+    public synchronized void put(String table, String id, String json) {
+        table(table).put(id, json);
+    }
+
+    @Override
+    public synchronized void putAll(String table, Map<String, String> rows) {
+        table(table).putAll(rows);
+    }
+
+    @Override
+    public synchronized void delete(String table, String id) {
+        table(table).remove(id);
+    }
+
+    @Override
+    public synchronized void replaceAll(String table, Map<String, String> rows, String watermark) {
+        table(table).clear();
+        table(table).putAll(rows);
+        setSyncState(table, watermark);
+        setSyncState(table + TOMBSTONE_SUFFIX, watermark);
+    }
+
+    @Override
+    public synchronized void applyChanges(String table, Map<String, String> changed, Collection<String> deletedIds,
+                                          String watermark, String tombstoneWatermark) {
+        for (String id : deletedIds) {
+            table(table).remove(id);
+        }
+        table(table).putAll(changed);
+        setSyncState(table, watermark);
+        setSyncState(table + TOMBSTONE_SUFFIX, tombstoneWatermark);
+    }
+
+    @Override
+    public synchronized String getWatermark(String table) {
+        return syncState.get(table);
+    }
+
+    @Override
+    public synchronized String getTombstoneWatermark(String table) {
+        return syncState.get(table + TOMBSTONE_SUFFIX);
+    }
+
+    private void setSyncState(String key, String value) {
+        if (value == null) {
+            syncState.remove(key);
+        } else {
+            syncState.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.shipvoyage.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SyncEngineTest {
+
+    @Test
+    public void overlapStart_readsFromBeforeWatermark() {
+        assertEquals("2026-10-18T09:29:00", SyncEngine.overlapStart("2026-10-18T09:30:00"));
+        assertEquals("2026-10-18T09:29:15", SyncEngine.overlapStart("2026-10-18T09:30:15.123456"));
+    }
+
+    @Test
+    public void overlapStart_crossesDayBoundary() {
+        assertEquals("2026-12-31T23:59:30", SyncEngine.overlapStart("2027-01-01T00:00:30.5"));
+    }
+
+    @Test
+    public void overlapStart_keepsZoneSuffix() {
+        assertEquals("2026-10-18T09:29:00+00:00", SyncEngine.overlapStart("2026-10-18T09:30:00.25+00:00"));
+        assertEquals("2026-10-18T09:29:00Z", SyncEngine.overlapStart("2026-10-18T09:30:00Z"));
+    }
+
+    @Test
+    public void overlapStart_leavesUnknownValuesAlone() {
+        assertNull(SyncEngine.overlapStart(null));
+        assertEquals("yesterday", SyncEngine.overlapStart("yesterday"));
+        assertEquals("not-a-timestamp-at-all", SyncEngine.overlapStart("not-a-timestamp-at-all"));
+    }
+}
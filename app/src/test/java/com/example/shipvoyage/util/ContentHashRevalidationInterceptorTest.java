@@ -0,0 +1,144 @@
+package com.example.shipvoyage.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class ContentHashRevalidationInterceptorTest {
+    private static final String SHIPS = "[{\"id\":\"s1\",\"name\":\"MV Sundarban\"}]";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Cache cache;
+    private ContentHashRevalidationInterceptor interceptor;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        cache = new Cache(folder.newFolder("http"), 1024 * 1024);
+        interceptor = new ContentHashRevalidationInterceptor(Arrays.asList("ships", "tours"));
+        client = new OkHttpClient.Builder()
+                .cache(cache)
+                .addNetworkInterceptor(interceptor)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cache.close();
+        server.shutdown();
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+
+    private String body(String path) throws IOException {
+        try (Response response = get(path)) {
+            return response.body().string();
+        }
+    }
+
+    @Test
+    public void unchangedReferenceTable_revalidatesTo304() throws Exception {
+        server.enqueue(new MockResponse().setBody(SHIPS));
+        server.enqueue(new MockResponse().setBody(SHIPS));
+
+        assertEquals(SHIPS, body("/rest/v1/ships"));
+        try (Response second = get("/rest/v1/ships")) {
+            assertEquals(SHIPS, second.body().string());
+            assertNotNull(second.cacheResponse());
+            assertEquals(304, second.networkResponse().code());
+        }
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertTrue(server.takeRequest().getHeader("If-None-Match").startsWith("W/\"sha256-"));
+        assertEquals(1, interceptor.getUnchangedCount());
+    }
+
+    @Test
+    public void changedReferenceTable_returnsNewBody() throws Exception {
+        String updated = "[{\"id\":\"s1\",\"name\":\"MV Padma\"}]";
+        server.enqueue(new MockResponse().setBody(SHIPS));
+        server.enqueue(new MockResponse().setBody(updated));
+
+        assertEquals(SHIPS, body("/rest/v1/ships"));
+        assertEquals(updated, body("/rest/v1/ships"));
+        assertEquals(0, interceptor.getUnchangedCount());
+    }
+
+    @Test
+    public void userRows_areNeverStored() throws Exception {
+        String users = "[{\"id\":\"u1\",\"email\":\"a@example.com\",\"password\":\"secret\"}]";
+        server.enqueue(new MockResponse().setBody(users));
+        server.enqueue(new MockResponse().setBody(users));
+
+        try (Response response = get("/rest/v1/users")) {
+            assertEquals(users, response.body().string());
+            assertEquals("no-store", response.header("Cache-Control"));
+        }
+        body("/rest/v1/users");
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(0, cache.writeSuccessCount());
+        assertEquals(0, cache.hitCount());
+    }
+
+    @Test
+    public void pagedOrPasswordReads_areNotStored() throws Exception {
+        server.enqueue(new MockResponse().setBody(SHIPS));
+        server.enqueue(new MockResponse().setBody(SHIPS));
+
+        body("/rest/v1/ships?limit=50&offset=0");
+        body("/rest/v1/tours?select=id,password");
+
+        assertEquals(0, cache.writeSuccessCount());
+        assertEquals(0, interceptor.getHashedCount());
+    }
+
+    @Test
+    public void largeBody_passesThroughUnhashed() throws Exception {
+        char[] padding = new char[(int) ContentHashRevalidationInterceptor.MAX_HASHED_BYTES + 10];
+        Arrays.fill(padding, 'x');
+        String large = "[\"" + new String(padding) + "\"]";
+        server.enqueue(new MockResponse().setBody(large));
+
+        try (Response response = get("/rest/v1/ships")) {
+            assertEquals(large, response.body().string());
+            assertNull(response.header("ETag"));
+        }
+        assertEquals(0, interceptor.getHashedCount());
+    }
+
+    @Test
+    public void serverValidators_areLeftAlone() throws Exception {
+        server.enqueue(new MockResponse().setBody(SHIPS).setHeader("ETag", "\"v1\""));
+
+        try (Response response = get("/rest/v1/ships")) {
+            assertEquals("\"v1\"", response.header("ETag"));
+        }
+        RecordedRequest request = server.takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals(0, interceptor.getHashedCount());
+    }
+}
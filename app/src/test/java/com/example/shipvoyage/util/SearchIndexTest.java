@@ -0,0 +1,95 @@
+package com.example.shipvoyage.util;
+
+import com.example.shipvoyage.model.User;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexTest {
+    private SearchIndex<User> index;
+
+    private static User user(String id, String name, String email, String phone) {
+        return new User(id, name, email, phone, "passenger");
+    }
+
+    private static List<String> ids(List<User> users) {
+        List<String> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+
+    @Before
+    public void setUp() {
+        index = new SearchIndex<>(User::getId, User::getName, User::getEmail, User::getPhone);
+        index.setAll(Arrays.asList(
+                user("1", "Rahim Uddin", "rahim@example.com", "01711000001"),
+                user("2", "Karim Ahmed", "karim@example.com", "01811000002"),
+                user("3", "Fatema Begum", null, "01911000003")));
+    }
+
+    @Test
+    public void search_matchesAnyFieldIgnoringCase() {
+        assertEquals(Arrays.asList("1", "2"), ids(index.search("EXAMPLE.com")));
+        assertEquals(Arrays.asList("2"), ids(index.search("RIM")));
+        assertEquals(Arrays.asList("2"), ids(index.search("karim@")));
+        assertEquals(Arrays.asList("3"), ids(index.search("0191")));
+        assertEquals(Arrays.asList("3"), ids(index.search(" begum ")));
+    }
+
+    @Test
+    public void search_shortQueriesScan() {
+        assertEquals(Arrays.asList("2"), ids(index.search("ka")));
+        assertEquals(Arrays.asList("1", "2", "3"), ids(index.search("m")));
+    }
+
+    @Test
+    public void search_emptyQueryReturnsAllInOrder() {
+        assertEquals(Arrays.asList("1", "2", "3"), ids(index.search("")));
+        assertEquals(Arrays.asList("1", "2", "3"), ids(index.search(null)));
+    }
+
+    @Test
+    public void search_noMatch() {
+        assertTrue(index.search("zzz").isEmpty());
+        // Every trigram exists, but not next to each other
+        assertTrue(index.search("rahimkarim").isEmpty());
+    }
+
+    @Test
+    public void search_doesNotMatchAcrossFields() {
+        // "uddin" ends the name and "rahim@" starts the email
+        assertTrue(index.search("uddinrahim").isEmpty());
+    }
+
+    @Test
+    public void put_replacesRowInPlace() {
+        index.put(user("2", "Karim Chowdhury", "kc@example.com", "01811000002"));
+
+        assertTrue(index.search("ahmed").isEmpty());
+        assertEquals(Arrays.asList("2"), ids(index.search("chowdhury")));
+        assertEquals(Arrays.asList("1", "2", "3"), ids(index.rows()));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void remove_dropsRowAndCompacts() {
+        index.remove("1");
+        index.remove("2");
+
+        assertEquals(1, index.size());
+        assertTrue(index.search("rahim").isEmpty());
+        assertEquals(Arrays.asList("3"), ids(index.search("fatema")));
+
+        index.put(user("4", "Rahim Mia", null, null));
+        assertEquals(Arrays.asList("3", "4"), ids(index.rows()));
+        assertEquals(Arrays.asList("4"), ids(index.search("rahim")));
+    }
+}
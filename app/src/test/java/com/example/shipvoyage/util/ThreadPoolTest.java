@@ -0,0 +1,76 @@
+package com.example.shipvoyage.util;
+
+import com.example.shipvoyage.dao.MockServerDAO;
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class ThreadPoolTest {
+    private static final int CALLS = 1000;
+    private static final int ROUNDS = 10;
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody("[{\"id\":\"1\"}]");
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void thousandCalls_keepThreadCountFlat() {
+        MockServerDAO dao = new MockServerDAO("bookings");
+        // Warm up the pool, the HTTP client and the server
+        runRound(dao, CALLS / ROUNDS);
+        int baseline = Thread.activeCount();
+
+        int peak = baseline;
+        for (int round = 1; round < ROUNDS; round++) {
+            runRound(dao, CALLS / ROUNDS);
+            peak = Math.max(peak, Thread.activeCount());
+            assertTrue("DAO workers exceed the limit: " + ThreadPool.getPoolSize(),
+                    ThreadPool.getPoolSize() <= ThreadPool.getMaxConcurrency());
+        }
+
+        // A pool per call would add about one thread per request
+        assertTrue("Live threads grew from " + baseline + " to " + peak,
+                peak - baseline <= ThreadPool.getMaxConcurrency());
+        assertEquals(0, ThreadPool.getRejectedCount());
+    }
+
+    private void runRound(MockServerDAO dao, int calls) {
+        HttpUrl url = server.url("/rest/v1/bookings");
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(dao.stream(url, JsonObject.class, row -> { }));
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(Integer.valueOf(1), future.join());
+        }
+    }
+}
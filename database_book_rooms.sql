@@ -0,0 +1,86 @@
+-- =============================================
+-- Multi-room Booking RPC
+-- =============================================
+-- Books several rooms of one tour instance in a single transaction.
+-- Either every room is booked or none is; rooms already taken by an active
+-- (not CANCELLED) booking are returned as conflicts in the same response.
+-- Called by BookingDAO.bookRooms as POST /rest/v1/rpc/book_rooms
+-- Run this in your Supabase SQL Editor
+-- =============================================
+
+-- 1. One active booking per room and tour instance.
+-- Also guards single-room inserts that do not go through book_rooms.
+-- Fails if duplicates already exist; cancel or remove them first.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_bookings_active_room
+    ON bookings (tour_instance_id, room_id)
+    WHERE status IS DISTINCT FROM 'CANCELLED';
+
+-- 2. book_rooms(tour instance, room ids, booking details)
+-- p_booking holds the customer and payment columns of a bookings row.
+-- Money is split evenly across the rooms (any rounding remainder goes to the
+-- first room); adult/child counts are recorded on the first room only, so
+-- per-customer sums match what was entered.
+-- Returns {"booking_ids": [...], "conflicts": [...]}
+CREATE OR REPLACE FUNCTION book_rooms(p_tour_instance_id TEXT, p_room_ids TEXT[], p_booking JSON)
+RETURNS json
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_rooms TEXT[];
+    v_count INTEGER;
+    v_conflicts TEXT[];
+    v_ids TEXT[] := ARRAY[]::TEXT[];
+    v_id TEXT;
+    v_total NUMERIC := COALESCE((p_booking->>'total_payment')::NUMERIC, 0);
+    v_paid NUMERIC := COALESCE((p_booking->>'paid_amount')::NUMERIC, 0);
+    v_due NUMERIC := COALESCE((p_booking->>'due_amount')::NUMERIC, 0);
+    v_discount NUMERIC := COALESCE((p_booking->>'discount')::NUMERIC, 0);
+    i INTEGER;
+BEGIN
+    SELECT ARRAY(SELECT DISTINCT unnest(p_room_ids)) INTO v_rooms;
+    v_count := COALESCE(array_length(v_rooms, 1), 0);
+    IF v_count = 0 THEN
+        RETURN json_build_object('booking_ids', v_ids, 'conflicts', ARRAY[]::TEXT[]);
+    END IF;
+
+    -- Serialize bookings of the same tour instance so two callers cannot
+    -- both pass the availability check below
+    PERFORM pg_advisory_xact_lock(hashtext('book_rooms:' || p_tour_instance_id));
+
+    SELECT ARRAY(
+        SELECT DISTINCT room_id FROM bookings
+        WHERE tour_instance_id = p_tour_instance_id
+          AND room_id = ANY(v_rooms)
+          AND status IS DISTINCT FROM 'CANCELLED'
+    ) INTO v_conflicts;
+
+    IF array_length(v_conflicts, 1) > 0 THEN
+        RETURN json_build_object('booking_ids', v_ids, 'conflicts', v_conflicts);
+    END IF;
+
+    FOR i IN 1..v_count LOOP
+        v_id := gen_random_uuid()::TEXT;
+        INSERT INTO bookings (id, tour_instance_id, room_id, name, phone, email,
+                              payment_method, payment_details,
+                              total_payment, paid_amount, due_amount, discount,
+                              adult_count, child_count, status)
+        VALUES (
+            v_id, p_tour_instance_id, v_rooms[i],
+            p_booking->>'name', p_booking->>'phone', p_booking->>'email',
+            p_booking->>'payment_method', p_booking->>'payment_details',
+            ROUND(v_total / v_count, 2) + CASE WHEN i = 1 THEN v_total - ROUND(v_total / v_count, 2) * v_count ELSE 0 END,
+            ROUND(v_paid / v_count, 2) + CASE WHEN i = 1 THEN v_paid - ROUND(v_paid / v_count, 2) * v_count ELSE 0 END,
+            ROUND(v_due / v_count, 2) + CASE WHEN i = 1 THEN v_due - ROUND(v_due / v_count, 2) * v_count ELSE 0 END,
+            ROUND(v_discount / v_count, 2) + CASE WHEN i = 1 THEN v_discount - ROUND(v_discount / v_count, 2) * v_count ELSE 0 END,
+            CASE WHEN i = 1 THEN COALESCE((p_booking->>'adult_count')::INTEGER, 1) ELSE 0 END,
+            CASE WHEN i = 1 THEN COALESCE((p_booking->>'child_count')::INTEGER, 0) ELSE 0 END,
+            COALESCE(p_booking->>'status', 'PENDING')
+        );
+        v_ids := v_ids || v_id;
+    END LOOP;
+
+    RETURN json_build_object('booking_ids', v_ids, 'conflicts', ARRAY[]::TEXT[]);
+END;
+$$;
+
+GRANT EXECUTE ON FUNCTION book_rooms(TEXT, TEXT[], JSON) TO anon;
@@ -0,0 +1,38 @@
+-- =============================================
+-- Dashboard Stats RPC
+-- =============================================
+-- Returns every admin dashboard counter in one round trip.
+-- Called by DashboardStatsDAO as POST /rest/v1/rpc/dashboard_stats
+-- with {"p_today": "yyyy-MM-dd"}, the device's local date. Tour dates are
+-- local calendar dates, so they are compared with that rather than NOW(),
+-- which is UTC on Supabase. The count fallback in the app uses the same rules.
+-- Run this in your Supabase SQL Editor
+-- =============================================
+
+-- Earlier version without parameters
+DROP FUNCTION IF EXISTS dashboard_stats();
+
+CREATE OR REPLACE FUNCTION dashboard_stats(p_today date DEFAULT CURRENT_DATE)
+RETURNS json
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT json_build_object(
+        'ship_count',          (SELECT COUNT(*) FROM ships),
+        'tour_count',          (SELECT COUNT(*) FROM tours),
+        'tour_instance_count', (SELECT COUNT(*) FROM tour_instances),
+        'upcoming_tour_count', (SELECT COUNT(*) FROM tour_instances
+                                WHERE start_date > p_today),
+        'current_tour_count',  (SELECT COUNT(*) FROM tour_instances
+                                WHERE start_date <= p_today
+                                  AND end_date > p_today),
+        'booking_count',       (SELECT COUNT(*) FROM bookings),
+        'customer_count',      (SELECT COUNT(*) FROM users
+                                WHERE LOWER(role) = 'passenger')
+    );
+$$;
+
+GRANT EXECUTE ON FUNCTION dashboard_stats(date) TO anon;
+
+-- Verify
+SELECT dashboard_stats();
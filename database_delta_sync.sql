@@ -0,0 +1,86 @@
+-- =============================================
+-- Delta Sync Support
+-- =============================================
+-- Lets the app fetch only rows changed since its last sync:
+--   * every mirrored table gets an updated_at column kept current by a trigger
+--   * deletes are logged to deleted_rows so clients can drop them locally
+-- Used by SyncEngine / TombstoneDAO. Clients fall back to full downloads
+-- until this has been run.
+-- Run this in your Supabase SQL Editor
+-- =============================================
+
+-- 1. updated_at on every mirrored table (bookings already has it)
+ALTER TABLE users          ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE ships          ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE rooms          ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE room_types     ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE tours          ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE tour_instances ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+ALTER TABLE bookings       ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+
+-- 2. Bump updated_at on every insert/update
+-- A row is stamped when it is written but only becomes visible when its
+-- transaction commits, so a client can sync in between, move its watermark
+-- past the stamp, and never see the row. No timestamp function prevents that;
+-- clock_timestamp() (rather than NOW(), the transaction start) only narrows
+-- the gap to the time between the write and the commit. SyncEngine covers it
+-- by re-reading a one-minute overlap below its watermark and merging by id.
+-- The same applies to deleted_at below.
+CREATE OR REPLACE FUNCTION set_updated_at()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.updated_at = clock_timestamp();
+    RETURN NEW;
+END;
+$$;
+
+-- 3. Tombstones for deleted rows
+CREATE TABLE IF NOT EXISTS deleted_rows (
+    table_name TEXT NOT NULL,
+    row_id TEXT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT clock_timestamp(),
+    PRIMARY KEY (table_name, row_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_deleted_rows_table_deleted_at
+    ON deleted_rows (table_name, deleted_at);
+
+CREATE OR REPLACE FUNCTION record_deletion()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO deleted_rows (table_name, row_id, deleted_at)
+    VALUES (TG_TABLE_NAME, OLD.id, clock_timestamp())
+    ON CONFLICT (table_name, row_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$;
+
+-- 4. Triggers and watermark indexes on each table
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'ships', 'rooms', 'room_types', 'tours', 'tour_instances', 'bookings']
+    LOOP
+        EXECUTE format('DROP TRIGGER IF EXISTS %I_set_updated_at ON %I', t, t);
+        EXECUTE format('CREATE TRIGGER %I_set_updated_at BEFORE INSERT OR UPDATE ON %I
+                        FOR EACH ROW EXECUTE FUNCTION set_updated_at()', t, t);
+
+        EXECUTE format('DROP TRIGGER IF EXISTS %I_record_deletion ON %I', t, t);
+        EXECUTE format('CREATE TRIGGER %I_record_deletion AFTER DELETE ON %I
+                        FOR EACH ROW EXECUTE FUNCTION record_deletion()', t, t);
+
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_%s_updated_at ON %I (updated_at)', t, t);
+    END LOOP;
+END;
+$$;
+
+GRANT SELECT ON deleted_rows TO anon;
+
+-- Old tombstones can be pruned once every client has synced past them, e.g.
+-- DELETE FROM deleted_rows WHERE deleted_at < NOW() - INTERVAL '30 days';
+-- A client offline for longer keeps those rows until its mirror is rebuilt.